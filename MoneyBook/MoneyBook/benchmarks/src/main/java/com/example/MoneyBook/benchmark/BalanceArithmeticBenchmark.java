@@ -0,0 +1,58 @@
+package com.example.MoneyBook.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * BigDecimal operations on the balance path: applying a delta, the
+ * insufficient-funds check and back-computing the delta of an edited transaction.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BalanceArithmeticBenchmark {
+
+    private BigDecimal balance;
+    private BigDecimal amount;
+    private BigDecimal oldCashIn;
+    private BigDecimal newCashIn;
+
+    @Setup
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        balance = BigDecimal.valueOf(random.nextLong(1_000_000, 100_000_000), 2);
+        amount = BigDecimal.valueOf(random.nextLong(1, 100_000), 2);
+        oldCashIn = BigDecimal.valueOf(random.nextLong(1, 100_000), 2);
+        newCashIn = BigDecimal.valueOf(random.nextLong(1, 100_000), 2);
+    }
+
+    @Benchmark
+    public BigDecimal deposit() {
+        return balance.add(amount);
+    }
+
+    @Benchmark
+    public BigDecimal withdrawWithFundsCheck() {
+        return balance.compareTo(amount) < 0 ? balance : balance.subtract(amount);
+    }
+
+    @Benchmark
+    public BigDecimal updateDelta() {
+        return newCashIn.subtract(BigDecimal.ZERO).subtract(oldCashIn.subtract(BigDecimal.ZERO));
+    }
+}
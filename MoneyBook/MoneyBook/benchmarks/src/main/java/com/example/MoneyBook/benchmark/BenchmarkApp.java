@@ -0,0 +1,35 @@
+package com.example.MoneyBook.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.MoneyBook.MoneyBookApplication;
+
+/**
+ * Starts the service against an in-memory H2 database, standing in for MySQL so
+ * benchmark runs are reproducible on any machine.
+ */
+final class BenchmarkApp {
+
+    private BenchmarkApp() {
+    }
+
+    static ConfigurableApplicationContext start(String database, boolean web) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--logging.level.root=WARN",
+                // Load generators run past the pool size and per-user rate on purpose; measure, don't shed
+                "--admission.enabled=false",
+                "--server.port=0"));
+        SpringApplication application = new SpringApplication(MoneyBookApplication.class);
+        application.setWebApplicationType(web ? WebApplicationType.SERVLET : WebApplicationType.NONE);
+        return application.run(args.toArray(String[]::new));
+    }
+}
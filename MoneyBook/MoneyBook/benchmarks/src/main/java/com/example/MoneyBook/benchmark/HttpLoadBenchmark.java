@@ -0,0 +1,101 @@
+package com.example.MoneyBook.benchmark;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.UserRepository;
+
+/**
+ * HTTP-level load scenario: concurrent clients calling /deposit, /withdraw and
+ * /api/users/{id} on a running service. Results are per-request throughput;
+ * use -t to change the number of client threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class HttpLoadBenchmark {
+
+    private static final int USERS = 100;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private Long[] userIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApp.start("http-benchmark", true);
+        baseUrl = "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port");
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        userIds = new Long[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = userRepository.save(new User("load" + i, "pw", new BigDecimal("10000000.00"))).getId();
+        }
+        client = HttpClient.newHttpClient();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private Long randomUser() {
+        return userIds[ThreadLocalRandom.current().nextInt(USERS)];
+    }
+
+    @Benchmark
+    public int deposit() throws Exception {
+        return post("/api/transactions/deposit", "{\"user\":{\"id\":" + randomUser() + "},\"cashIn\":1.00}");
+    }
+
+    @Benchmark
+    public int withdraw() throws Exception {
+        return post("/api/transactions/withdraw", "{\"user\":{\"id\":" + randomUser() + "},\"cashOut\":1.00}");
+    }
+
+    @Benchmark
+    public int getUser() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/users/" + randomUser())).GET().build();
+        return checked(client.send(request, HttpResponse.BodyHandlers.discarding()));
+    }
+
+    private int post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return checked(client.send(request, HttpResponse.BodyHandlers.discarding()));
+    }
+
+    private static int checked(HttpResponse<?> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.MoneyBook.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.MoneyBook.model.Transaction;
+import com.example.MoneyBook.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * JSON (de)serialization of the request and response bodies the ledger endpoints exchange.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    private ObjectMapper mapper;
+    private Transaction transaction;
+    private User user;
+    private String depositRequestJson;
+    private String userJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Same modules and date handling as the Spring Boot managed mapper
+        mapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        user = new User("alice", "secret", new BigDecimal("1234.56"));
+        user.setId(42L);
+        transaction = new Transaction(user, new BigDecimal("99.99"), BigDecimal.ZERO, Transaction.TransactionType.CASHIN);
+        transaction.setId(1001L);
+        transaction.setNotes("Groceries at the corner store");
+        depositRequestJson = "{\"user\":{\"id\":42},\"cashIn\":99.99,\"notes\":\"Groceries at the corner store\"}";
+        userJson = mapper.writeValueAsString(user);
+    }
+
+    @Benchmark
+    public String serializeTransaction() throws Exception {
+        return mapper.writeValueAsString(transaction);
+    }
+
+    @Benchmark
+    public String serializeUser() throws Exception {
+        return mapper.writeValueAsString(user);
+    }
+
+    @Benchmark
+    public Transaction deserializeDepositRequest() throws Exception {
+        return mapper.readValue(depositRequestJson, Transaction.class);
+    }
+
+    @Benchmark
+    public User deserializeUser() throws Exception {
+        return mapper.readValue(userJson, User.class);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.MoneyBook.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import com.example.MoneyBook.dto.BatchEntry;
+import com.example.MoneyBook.dto.TransactionView;
+import com.example.MoneyBook.model.Transaction;
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.TransactionRepository;
+import com.example.MoneyBook.repo.UserRepository;
+import com.example.MoneyBook.service.LedgerService;
+
+/**
+ * Repository and ledger service calls against a seeded H2 database: history
+ * pages, login lookup and a full deposit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private static final int USERS = 100;
+
+    @Param({"100000"})
+    public int transactions;
+
+    private ConfigurableApplicationContext context;
+    private TransactionRepository transactionRepository;
+    private UserRepository userRepository;
+    private LedgerService ledgerService;
+    private Long[] userIds;
+    private TransactionView[] cursors;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApp.start("repository-benchmark", false);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        ledgerService = context.getBean(LedgerService.class);
+
+        userIds = new Long[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = userRepository.save(new User("bench" + i, "pw", new BigDecimal("1000000.00"))).getId();
+        }
+        // Seed through the bulk path, one chunk at a time
+        List<BatchEntry> chunk = new ArrayList<>();
+        for (int i = 0; i < transactions; i++) {
+            chunk.add(new BatchEntry(userIds[i % USERS], Transaction.TransactionType.CASHIN,
+                    BigDecimal.ONE, "seed " + i, null));
+            if (chunk.size() == 1000) {
+                ledgerService.applyBatch(chunk, i);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            ledgerService.applyBatch(chunk, transactions);
+        }
+
+        // A position halfway down each user's history for the keyset benchmark
+        cursors = new TransactionView[USERS];
+        for (int i = 0; i < USERS; i++) {
+            List<TransactionView> page = transactionRepository.findLatestByUser(userIds[i], Limit.of(transactions / USERS / 2));
+            cursors[i] = page.get(page.size() - 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private int randomUser() {
+        return ThreadLocalRandom.current().nextInt(USERS);
+    }
+
+    @Benchmark
+    public List<TransactionView> historyFirstPage() {
+        return transactionRepository.findLatestByUser(userIds[randomUser()], Limit.of(20));
+    }
+
+    @Benchmark
+    public List<TransactionView> historyKeysetPage() {
+        int u = randomUser();
+        TransactionView cursor = cursors[u];
+        return transactionRepository.findPageBefore(userIds[u], cursor.transactionDate(), cursor.id(), Limit.of(20));
+    }
+
+    @Benchmark
+    public User loginLookup() {
+        return userRepository.findByUsername("bench" + randomUser());
+    }
+
+    @Benchmark
+    public Transaction deposit() {
+        return ledgerService.deposit(userIds[randomUser()], BigDecimal.ONE, "benchmark");
+    }
+}
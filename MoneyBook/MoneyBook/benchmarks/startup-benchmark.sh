@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+# Cold-start time of the service in three modes:
+#   jar      plain executable jar, default profile
+#   cds      extracted jar with a class-data-sharing archive from a training run,
+#            'startup' profile
+#   cds-aot  as cds, but built with -Pstartup and run with -Dspring.aot.enabled=true
+#
+# Each run starts the service and exits as soon as the context is refreshed
+# (spring.context.exit=onRefresh), so the wall time covers JVM start, Flyway,
+# Hibernate and Tomcat. The median of all runs is printed per mode.
+#
+# Needs the database from application.properties, or set SPRING_DATASOURCE_URL,
+# SPRING_DATASOURCE_USERNAME and SPRING_DATASOURCE_PASSWORD.
+#
+# Note: AOT evaluates @ConditionalOnProperty at build time, so ledger.mode,
+# datasource.replica.enabled and storage.partitioning.enabled are fixed by the
+# -Pstartup build (pass them with -Dspring-boot.aot.jvmArguments=...).
+#
+# Usage: benchmarks/startup-benchmark.sh [runs]
+set -euo pipefail
+
+RUNS=${1:-5}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+# Outside target/, which each build cleans
+WORK=$ROOT/benchmarks/target/startup-benchmark
+JAR=MoneyBook-0.0.1-SNAPSHOT-exec.jar
+EXIT_ARGS=(-Dspring.context.exit=onRefresh -Dserver.port=0 -Dlogging.level.root=WARN)
+
+build() {
+  mvn -q -B -f "$ROOT/pom.xml" -DskipTests "$@" clean package
+}
+
+# Extracts the jar into $1 and records a CDS archive from a training run
+prepare_cds() {
+  local dir=$1; shift
+  rm -rf "$dir"
+  java -Djarmode=tools -jar "$ROOT/target/$JAR" extract --destination "$dir"
+  java -XX:ArchiveClassesAtExit="$dir/application.jsa" "${EXIT_ARGS[@]}" "$@" -jar "$dir/$JAR" > /dev/null
+}
+
+# Prints the median wall time in milliseconds of RUNS starts of: java <args>
+measure() {
+  local label=$1; shift
+  local times=()
+  for ((i = 0; i < RUNS; i++)); do
+    local start end
+    start=$(date +%s%N)
+    java "${EXIT_ARGS[@]}" "$@" > /dev/null
+    end=$(date +%s%N)
+    times+=($(( (end - start) / 1000000 )))
+  done
+  local median
+  median=$(printf '%s\n' "${times[@]}" | sort -n | awk '{a[NR]=$1} END {print a[int((NR + 1) / 2)]}')
+  printf '%-8s median %6d ms  (runs: %s)\n' "$label" "$median" "${times[*]}"
+}
+
+mkdir -p "$WORK"
+
+build
+cp "$ROOT/target/$JAR" "$WORK/$JAR"
+prepare_cds "$WORK/cds" -Dspring.profiles.active=startup
+
+build -Pstartup
+prepare_cds "$WORK/cds-aot" -Dspring.profiles.active=startup -Dspring.aot.enabled=true
+
+measure jar -jar "$WORK/$JAR"
+measure cds -XX:SharedArchiveFile="$WORK/cds/application.jsa" -Dspring.profiles.active=startup \
+  -jar "$WORK/cds/$JAR"
+measure cds-aot -XX:SharedArchiveFile="$WORK/cds-aot/application.jsa" -Dspring.profiles.active=startup \
+  -Dspring.aot.enabled=true -jar "$WORK/cds-aot/$JAR"
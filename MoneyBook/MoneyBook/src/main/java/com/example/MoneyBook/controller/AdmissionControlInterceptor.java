@@ -0,0 +1,62 @@
+package com.example.MoneyBook.controller;
+
+import com.example.MoneyBook.service.AdmissionControl;
+import com.example.MoneyBook.service.LedgerMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Admits a write request (anything but GET, HEAD and OPTIONS) only while
+ * {@link AdmissionControl} has a free slot, and answers 429 right away
+ * otherwise. The slot is held until the request completes. Per-user limits
+ * need the user from the request body, so the controller applies them.
+ */
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ADMITTED = AdmissionControlInterceptor.class.getName() + ".admitted";
+
+    private final AdmissionControl admissionControl;
+    private final LedgerMetrics ledgerMetrics;
+
+    public AdmissionControlInterceptor(AdmissionControl admissionControl, LedgerMetrics ledgerMetrics) {
+        this.admissionControl = admissionControl;
+        this.ledgerMetrics = ledgerMetrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)
+                || request.getAttribute(ADMITTED) != null) {
+            return true;
+        }
+        if (!admissionControl.tryEnter()) {
+            ledgerMetrics.shed(method.toLowerCase(), "global");
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return false;
+        }
+        request.setAttribute(ADMITTED, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request);
+    }
+
+    private void release(HttpServletRequest request) {
+        if (request.getAttribute(ADMITTED) != null) {
+            request.removeAttribute(ADMITTED);
+            admissionControl.exit();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.MoneyBook.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.MoneyBook.dto.AttachmentView;
+import com.example.MoneyBook.model.Attachment;
+import com.example.MoneyBook.service.AttachmentService;
+import com.example.MoneyBook.service.LedgerException;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*", exposedHeaders = {"Accept-Ranges", "Content-Range", "ETag"})
+public class AttachmentController {
+
+    private static final Logger log = LoggerFactory.getLogger(AttachmentController.class);
+
+    // Request attributes of Tomcat's sendfile support (see org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Raster formats browsers only ever render as pictures; anything else (SVG, HTML, ...)
+    // could run script in our origin, so it is always sent as a download
+    private static final Set<String> INLINE_TYPES = Set.of("image/jpeg", "image/png", "image/gif", "image/webp");
+
+    @Autowired
+    private AttachmentService attachmentService;
+
+    // Attach a file (multipart field "file") to a transaction
+    @PostMapping("/transactions/{transactionId}/attachments")
+    public ResponseEntity<?> upload(@PathVariable Long transactionId, @RequestParam("file") MultipartFile file)
+            throws IOException {
+        try (InputStream content = file.getInputStream()) {
+            Attachment attachment = attachmentService.store(transactionId, file.getOriginalFilename(),
+                    file.getContentType(), content);
+            return ResponseEntity.status(HttpStatus.CREATED).body(AttachmentView.from(attachment));
+        } catch (LedgerException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    // List the attachments of a transaction
+    @GetMapping("/transactions/{transactionId}/attachments")
+    public List<AttachmentView> list(@PathVariable Long transactionId) {
+        return attachmentService.findByTransaction(transactionId).stream().map(AttachmentView::from).toList();
+    }
+
+    // Download an attachment; honours single byte ranges
+    @GetMapping("/attachments/{id}")
+    public void download(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Attachment attachment = attachmentService.find(id);
+        if (attachment == null) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        serve(attachmentService.content(attachment), attachment.getContentType(), attachment.getSha256(),
+                attachment.getFileName(), request, response);
+    }
+
+    // Thumbnail of an image attachment; 404 until it has been rendered
+    @GetMapping("/attachments/{id}/thumbnail")
+    public void thumbnail(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Attachment attachment = attachmentService.find(id);
+        Path thumbnail = attachment != null ? attachmentService.thumbnail(attachment) : null;
+        if (thumbnail == null) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        serve(thumbnail, "image/jpeg", attachment.getSha256() + "-thumb", null, request, response);
+    }
+
+    // Delete an attachment
+    @DeleteMapping("/attachments/{id}")
+    public ResponseEntity<?> delete(@PathVariable Long id) {
+        return attachmentService.delete(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    private static boolean isInline(String contentType) {
+        int parameters = contentType.indexOf(';');
+        String type = parameters < 0 ? contentType : contentType.substring(0, parameters);
+        return INLINE_TYPES.contains(type.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Writes a file, or one byte range of it, without copying it through the
+     * heap: through Tomcat's sendfile when the connector offers it, otherwise
+     * with FileChannel.transferTo into the response.
+     */
+    private void serve(Path file, String contentType, String etag, String fileName,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length;
+        try {
+            length = Files.size(file);
+        } catch (NoSuchFileException e) {
+            log.atWarn().addKeyValue("file", file.getFileName()).log("Attachment content missing");
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Content never changes for a given hash
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=86400");
+        if (new ServletWebRequest(request, response).checkNotModified("\"" + etag + "\"")) {
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && length > 0) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                // Several ranges would need a multipart body; answering with the whole file is allowed
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    if (start >= length || start > end) {
+                        throw new IllegalArgumentException("Range not satisfiable: " + range);
+                    }
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(contentType);
+        response.setContentLengthLong(count);
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (fileName != null) {
+            ContentDisposition disposition = isInline(contentType)
+                    ? ContentDisposition.inline().filename(fileName, StandardCharsets.UTF_8).build()
+                    : ContentDisposition.attachment().filename(fileName, StandardCharsets.UTF_8).build();
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.toString());
+        }
+        if (count == 0 || "HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (count > 0) {
+                long written = channel.transferTo(position, count, out);
+                position += written;
+                count -= written;
+            }
+        }
+    }
+}
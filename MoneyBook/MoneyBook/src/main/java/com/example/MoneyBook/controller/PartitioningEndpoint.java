@@ -0,0 +1,43 @@
+package com.example.MoneyBook.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.MoneyBook.service.TransactionPartitionManager;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin step for transaction partitioning: {@code GET /actuator/partitioning}
+ * shows the state, {@code POST} converts the table. Not exposed over HTTP
+ * unless added to {@code management.endpoints.web.exposure.include}, since the
+ * conversion rewrites the whole transactions table.
+ */
+@Component
+@Endpoint(id = "partitioning")
+@ConditionalOnProperty(name = "storage.partitioning.enabled", havingValue = "true")
+public class PartitioningEndpoint {
+
+    @Autowired
+    private TransactionPartitionManager partitionManager;
+
+    // Whether the table is partitioned, and the months it holds
+    @ReadOperation
+    public Map<String, Object> status() {
+        List<String> months = partitionManager.months().stream().map(YearMonth::toString).toList();
+        return Map.of("active", partitionManager.isActive(), "months", months);
+    }
+
+    // Partition the transactions table; returns once the DDL has finished
+    @WriteOperation
+    public Map<String, Object> convert() {
+        partitionManager.convert();
+        return status();
+    }
+}
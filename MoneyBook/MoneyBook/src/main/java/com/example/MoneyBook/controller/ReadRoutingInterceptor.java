@@ -0,0 +1,60 @@
+package com.example.MoneyBook.controller;
+
+import com.example.MoneyBook.service.ReadRoutingDataSource;
+import com.example.MoneyBook.service.RecentWriters;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Pins a request to the primary database when it must see the latest
+ * commit: every request that is not a GET or HEAD (so a write never reads
+ * its inputs from a lagging replica), and reads of a user that changed
+ * recently, identified by the given path variable.
+ */
+public class ReadRoutingInterceptor implements AsyncHandlerInterceptor {
+
+    private final RecentWriters recentWriters;
+    private final String userIdVariable;
+
+    public ReadRoutingInterceptor(RecentWriters recentWriters, String userIdVariable) {
+        this.recentWriters = recentWriters;
+        this.userIdVariable = userIdVariable;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            ReadRoutingDataSource.pinToPrimary();
+            return true;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String userId = variables != null ? variables.get(userIdVariable) : null;
+        if (userId != null) {
+            try {
+                if (recentWriters.isRecent(Long.valueOf(userId))) {
+                    ReadRoutingDataSource.pinToPrimary();
+                }
+            } catch (NumberFormatException e) {
+                // Not a user id; the handler rejects it
+            }
+        }
+        return true;
+    }
+
+    // Streaming responses leave the request thread here instead of completing
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadRoutingDataSource.unpin();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadRoutingDataSource.unpin();
+    }
+}
@@ -1,174 +1,367 @@
 package com.example.MoneyBook.controller;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import com.example.MoneyBook.dto.SummaryResponse;
+import com.example.MoneyBook.dto.TransactionCursor;
+import com.example.MoneyBook.dto.TransactionView;
+import com.example.MoneyBook.dto.TransferRequest;
+import com.example.MoneyBook.dto.TransferResponse;
 import com.example.MoneyBook.model.Transaction;
-import com.example.MoneyBook.model.User;
 import com.example.MoneyBook.repo.TransactionRepository;
-import com.example.MoneyBook.repo.UserRepository;
+import com.example.MoneyBook.service.AdmissionControl;
+import com.example.MoneyBook.service.BatchIngestService;
+import com.example.MoneyBook.service.DailySummaryService;
+import com.example.MoneyBook.service.IdempotencyService;
+import com.example.MoneyBook.service.LedgerEventStream;
+import com.example.MoneyBook.service.LedgerException;
+import com.example.MoneyBook.service.LedgerExportService;
+import com.example.MoneyBook.service.LedgerMetrics;
+import com.example.MoneyBook.service.LedgerService;
+import com.example.MoneyBook.service.LedgerVersions;
+import com.example.MoneyBook.service.NotesIndex;
+import com.example.MoneyBook.service.TransactionPartitionManager;
+import com.example.MoneyBook.service.UserCache;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/transactions")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = {"X-Next-Cursor", "Idempotent-Replayed", "ETag", "Retry-After"})
 public class TransactionController {
 
+    private static final Logger log = LoggerFactory.getLogger(TransactionController.class);
+
     @Autowired
     private TransactionRepository transactionRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private LedgerService ledgerService;
+
+    @Autowired
+    private BatchIngestService batchIngestService;
+
+    @Autowired
+    private DailySummaryService dailySummaryService;
+
+    @Autowired
+    private LedgerExportService ledgerExportService;
+
+    @Autowired
+    private LedgerMetrics ledgerMetrics;
+
+    @Autowired
+    private LedgerEventStream ledgerEventStream;
+
+    @Autowired
+    private UserCache userCache;
 
-    // Get all transactions for a user
+    @Autowired
+    private NotesIndex notesIndex;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private LedgerVersions ledgerVersions;
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    // Only present with storage.partitioning.enabled=true
+    @Autowired(required = false)
+    private TransactionPartitionManager partitionManager;
+
+    @Value("${transactions.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${transactions.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${transactions.recent-window:P90D}")
+    private Duration recentWindow;
+
+    // Get a page of transactions for a user, newest first.
+    // The cursor for the next page is returned in the X-Next-Cursor header.
+    // Answered with 304 when If-None-Match still matches the user's ledger version.
     @GetMapping("/user/{userId}")
-    public List<Transaction> getUserTransactions(@PathVariable Long userId) {
-        return transactionRepository.findAll()
-                .stream()
-                .filter(t -> t.getUser().getId().equals(userId))
-                .toList();
+    public ResponseEntity<?> getUserTransactions(@PathVariable Long userId,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size,
+                                                 WebRequest request) {
+        if (request.checkNotModified(ledgerVersions.etag(userId))) {
+            return null;
+        }
+        int pageSize = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+        TransactionCursor position;
+        try {
+            position = cursor == null || cursor.isBlank() ? null : TransactionCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid cursor");
+        }
+
+        // Fetch one extra row to know whether another page exists
+        Limit limit = Limit.of(pageSize + 1);
+        List<TransactionView> rows = position == null
+                ? latest(userId, limit)
+                : transactionRepository.findPageBefore(userId, position.transactionDate(), position.id(), limit);
+
+        if (rows.size() <= pageSize) {
+            return ResponseEntity.ok(rows);
+        }
+        List<TransactionView> page = rows.subList(0, pageSize);
+        TransactionView last = page.get(pageSize - 1);
+        String nextCursor = new TransactionCursor(last.transactionDate(), last.id()).encode();
+        return ResponseEntity.ok()
+                .header("X-Next-Cursor", nextCursor)
+                .body(page);
     }
 
-    // Deposit money (Cash In)
+    // Deposit money (Cash In). With an Idempotency-Key header, a retried request returns
+    // the original transaction instead of depositing again.
     @PostMapping("/deposit")
-    public ResponseEntity<?> deposit(@RequestBody Transaction depositRequest) {
-        System.out.println("=== DEPOSIT REQUEST ===");
-        System.out.println("Received deposit request: " + depositRequest);
-        System.out.println("User from request: " + depositRequest.getUser());
-        
+    public ResponseEntity<?> deposit(@RequestBody Transaction depositRequest,
+                                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         Long userId = depositRequest.getUser() != null ? depositRequest.getUser().getId() : null;
-        System.out.println("User ID: " + userId);
+        log.atDebug().addKeyValue("userId", userId).addKeyValue("amount", depositRequest.getCashIn())
+                .log("Deposit request");
         
         if (userId == null) {
-            System.out.println("ERROR: User or User ID must not be null");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("User or User ID must not be null");
         }
-        
-        User user = userRepository.findById(userId).orElse(null);
-        System.out.println("Found user: " + user);
-        
-        if (user == null) {
-            System.out.println("ERROR: User not found");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("User not found");
+        ResponseEntity<?> throttled = throttle("deposit", userId);
+        if (throttled != null) {
+            return throttled;
         }
         
         try {
-            BigDecimal cashInAmount = depositRequest.getCashIn();
-            System.out.println("Cash in amount: " + cashInAmount);
-            
-            user.setBalance(user.getBalance().add(cashInAmount));
-            System.out.println("Updated balance: " + user.getBalance());
-            
-            User savedUser = userRepository.save(user);
-            System.out.println("User saved successfully");
-            
-            Transaction transaction = new Transaction(user, cashInAmount, BigDecimal.ZERO, Transaction.TransactionType.CASHIN);
-            transaction.setNotes(depositRequest.getNotes());
-            
-            System.out.println("Creating transaction: " + transaction);
-            Transaction savedTransaction = transactionRepository.save(transaction);
-            System.out.println("Transaction saved successfully with ID: " + savedTransaction.getId());
-            
-            return ResponseEntity.ok(savedTransaction);
+            if (idempotencyKey != null) {
+                BigDecimal amount = depositRequest.getCashIn();
+                String notes = depositRequest.getNotes();
+                return idempotent(idempotencyService.execute(userId, idempotencyKey, "deposit", amount, notes,
+                        () -> ledgerService.deposit(userId, amount, notes, idempotencyKey)));
+            }
+            Transaction savedTransaction = ledgerService.deposit(userId, depositRequest.getCashIn(), depositRequest.getNotes());
+            log.atDebug().addKeyValue("userId", userId).addKeyValue("transactionId", savedTransaction.getId())
+                    .log("Deposit saved");
+            return ResponseEntity.ok(TransactionView.from(savedTransaction));
+        } catch (LedgerException e) {
+            log.atInfo().addKeyValue("userId", userId).addKeyValue("reason", e.getReason()).log("Deposit rejected");
+            return ledgerError("deposit", e);
         } catch (Exception e) {
-            System.out.println("ERROR during deposit: " + e.getMessage());
-            e.printStackTrace();
+            log.atError().addKeyValue("userId", userId).setCause(e).log("Deposit failed");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error processing deposit: " + e.getMessage());
         }
     }
 
     // Withdraw money (Cash Out)
     @PostMapping("/withdraw")
-    public ResponseEntity<?> withdraw(@RequestBody Transaction withdrawRequest) {
-        System.out.println("=== WITHDRAW REQUEST ===");
-        System.out.println("Received withdraw request: " + withdrawRequest);
-        
+    public ResponseEntity<?> withdraw(@RequestBody Transaction withdrawRequest,
+                                      @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         Long userId = withdrawRequest.getUser() != null ? withdrawRequest.getUser().getId() : null;
+        log.atDebug().addKeyValue("userId", userId).addKeyValue("amount", withdrawRequest.getCashOut())
+                .log("Withdraw request");
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("User or User ID must not be null");
         }
-        User user = userRepository.findById(userId).orElse(null);
-        if (user == null) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("User not found");
+        ResponseEntity<?> throttled = throttle("withdraw", userId);
+        if (throttled != null) {
+            return throttled;
         }
-        if (user.getBalance().compareTo(withdrawRequest.getCashOut()) < 0) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Insufficient funds");
+        try {
+            if (idempotencyKey != null) {
+                BigDecimal amount = withdrawRequest.getCashOut();
+                String notes = withdrawRequest.getNotes();
+                return idempotent(idempotencyService.execute(userId, idempotencyKey, "withdraw", amount, notes,
+                        () -> ledgerService.withdraw(userId, amount, notes, idempotencyKey)));
+            }
+            return ResponseEntity.ok(TransactionView.from(
+                    ledgerService.withdraw(userId, withdrawRequest.getCashOut(), withdrawRequest.getNotes())));
+        } catch (LedgerException e) {
+            log.atInfo().addKeyValue("userId", userId).addKeyValue("reason", e.getReason()).log("Withdraw rejected");
+            return ledgerError("withdraw", e);
+        } catch (Exception e) {
+            log.atError().addKeyValue("userId", userId).setCause(e).log("Withdraw failed");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error processing withdrawal: " + e.getMessage());
         }
-        user.setBalance(user.getBalance().subtract(withdrawRequest.getCashOut()));
-        userRepository.save(user);
-        Transaction transaction = new Transaction(user, BigDecimal.ZERO, withdrawRequest.getCashOut(), Transaction.TransactionType.CASHOUT);
-        transaction.setNotes(withdrawRequest.getNotes());
-        return ResponseEntity.ok(transactionRepository.save(transaction));
     }
 
-    // Get recent transactions for a user (up to 5)
+    // Move money from one user to another; both legs are recorded or neither is
+    @PostMapping("/transfer")
+    public ResponseEntity<?> transfer(@RequestBody TransferRequest transferRequest) {
+        log.atDebug().addKeyValue("fromUserId", transferRequest.fromUserId())
+                .addKeyValue("toUserId", transferRequest.toUserId())
+                .addKeyValue("amount", transferRequest.amount()).log("Transfer request");
+        // Only the sender drives a transfer, so only the sender's rate counts
+        ResponseEntity<?> throttled = transferRequest.fromUserId() != null
+                ? throttle("transfer", transferRequest.fromUserId()) : null;
+        if (throttled != null) {
+            return throttled;
+        }
+        try {
+            TransferResponse response = ledgerService.transfer(transferRequest.fromUserId(), transferRequest.toUserId(),
+                    transferRequest.amount(), transferRequest.notes());
+            return ResponseEntity.ok(response);
+        } catch (LedgerException e) {
+            log.atInfo().addKeyValue("fromUserId", transferRequest.fromUserId())
+                    .addKeyValue("toUserId", transferRequest.toUserId())
+                    .addKeyValue("reason", e.getReason()).log("Transfer rejected");
+            return ledgerError("transfer", e);
+        } catch (Exception e) {
+            log.atError().addKeyValue("fromUserId", transferRequest.fromUserId())
+                    .addKeyValue("toUserId", transferRequest.toUserId()).setCause(e).log("Transfer failed");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error processing transfer: " + e.getMessage());
+        }
+    }
+
+    // Bulk import of cash-in/cash-out entries, as a JSON array or NDJSON
+    @PostMapping("/batch")
+    public ResponseEntity<?> batch(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(batchIngestService.ingest(request.getInputStream()));
+    }
+
+    // Cash-in/cash-out totals per day, served from the daily rollups (defaults to the last 30 days)
+    @GetMapping("/summary/{userId}")
+    public ResponseEntity<?> getSummary(@PathVariable Long userId,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("from must not be after to");
+        }
+        return ResponseEntity.ok(SummaryResponse.of(userId, start, end, dailySummaryService.findRange(userId, start, end)));
+    }
+
+    // Export a user's full ledger as CSV or NDJSON, optionally gzip-compressed
+    @GetMapping("/export/{userId}")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable Long userId,
+                                                        @RequestParam(defaultValue = "csv") String format,
+                                                        @RequestParam(defaultValue = "false") boolean gzip) {
+        LedgerExportService.Format exportFormat;
+        try {
+            exportFormat = LedgerExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        String extension = exportFormat == LedgerExportService.Format.CSV ? "csv" : "ndjson";
+        MediaType contentType = exportFormat == LedgerExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                ledgerExportService.export(userId, exportFormat, compressed);
+                compressed.finish();
+            } else {
+                ledgerExportService.export(userId, exportFormat, out);
+            }
+        };
+        String fileName = "ledger-" + userId + "." + extension + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.APPLICATION_OCTET_STREAM : contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    // Search a user's transaction notes; every term must match a word or word prefix
+    @GetMapping("/search/{userId}")
+    public ResponseEntity<?> search(@PathVariable Long userId,
+                                    @RequestParam String q,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                    @RequestParam(required = false) Transaction.TransactionType type,
+                                    @RequestParam(required = false) Integer size) {
+        if (q.isBlank()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("q is required");
+        }
+        int limit = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+        List<Long> ids = notesIndex.search(userId, q, from, to, type, limit);
+        if (ids.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        Map<Long, TransactionView> rows = new HashMap<>();
+        for (TransactionView row : transactionRepository.findViewsByIdIn(ids)) {
+            rows.put(row.id(), row);
+        }
+        return ResponseEntity.ok(ids.stream().map(rows::get).filter(Objects::nonNull).toList());
+    }
+
+    // Server-sent "ledger" events whenever the user's balance or transactions change
+    @GetMapping(path = "/stream/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@PathVariable Long userId) {
+        if (userCache.find(userId) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = ledgerEventStream.subscribe(userId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    // Get recent transactions for a user (up to 5), or 304 when unchanged
     @GetMapping("/recent/{userId}")
-    public List<Transaction> getRecentTransactions(@PathVariable Long userId) {
-        return transactionRepository.findAll()
-                .stream()
-                .filter(t -> t.getUser().getId().equals(userId))
-                .limit(5)
-                .toList();
+    public List<TransactionView> getRecentTransactions(@PathVariable Long userId, WebRequest request) {
+        if (request.checkNotModified(ledgerVersions.etag(userId))) {
+            return null;
+        }
+        return latest(userId, Limit.of(5));
     }
 
     // Update transaction
     @PutMapping("/{transactionId}")
     public ResponseEntity<?> updateTransaction(@PathVariable Long transactionId, @RequestBody Transaction updatedTransaction) {
-        System.out.println("=== UPDATE TRANSACTION REQUEST ===");
-        System.out.println("Transaction ID: " + transactionId);
-        System.out.println("Updated transaction: " + updatedTransaction);
+        log.atDebug().addKeyValue("transactionId", transactionId)
+                .addKeyValue("cashIn", updatedTransaction.getCashIn())
+                .addKeyValue("cashOut", updatedTransaction.getCashOut())
+                .log("Update transaction request");
+        ResponseEntity<?> throttled = throttleOwner("update", transactionId);
+        if (throttled != null) {
+            return throttled;
+        }
         
         try {
-            Transaction existingTransaction = transactionRepository.findById(transactionId).orElse(null);
-            if (existingTransaction == null) {
-                System.out.println("ERROR: Transaction not found");
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Transaction not found");
-            }
-            
-            User user = existingTransaction.getUser();
-            System.out.println("Found user: " + user.getUsername());
-            
-            // Calculate the difference to update user balance
-            BigDecimal oldAmount = existingTransaction.getType() == Transaction.TransactionType.CASHIN 
-                ? existingTransaction.getCashIn() 
-                : existingTransaction.getCashOut();
-            BigDecimal newAmount = updatedTransaction.getType() == Transaction.TransactionType.CASHIN 
-                ? updatedTransaction.getCashIn() 
-                : updatedTransaction.getCashOut();
-            
-            System.out.println("Old amount: " + oldAmount + ", New amount: " + newAmount);
-            
-            // Update user balance based on the difference
-            if (existingTransaction.getType() == Transaction.TransactionType.CASHIN) {
-                // For cash in: subtract old amount, add new amount
-                user.setBalance(user.getBalance().subtract(oldAmount).add(newAmount));
-            } else {
-                // For cash out: add back old amount, subtract new amount
-                user.setBalance(user.getBalance().add(oldAmount).subtract(newAmount));
-            }
-            
-            System.out.println("Updated user balance: " + user.getBalance());
-            
-            // Update transaction details
-            existingTransaction.setCashIn(updatedTransaction.getCashIn());
-            existingTransaction.setCashOut(updatedTransaction.getCashOut());
-            existingTransaction.setNotes(updatedTransaction.getNotes());
-            
-            // Save both user and transaction
-            userRepository.save(user);
-            Transaction savedTransaction = transactionRepository.save(existingTransaction);
-            
-            System.out.println("Transaction updated successfully");
-            return ResponseEntity.ok(savedTransaction);
+            Transaction savedTransaction = ledgerService.updateTransaction(transactionId,
+                    updatedTransaction.getCashIn(), updatedTransaction.getCashOut(), updatedTransaction.getNotes());
+            return ResponseEntity.ok(TransactionView.from(savedTransaction));
             
+        } catch (LedgerException e) {
+            log.atInfo().addKeyValue("transactionId", transactionId).addKeyValue("reason", e.getReason())
+                    .log("Update transaction rejected");
+            return ledgerError("update", e);
         } catch (Exception e) {
-            System.out.println("ERROR during transaction update: " + e.getMessage());
-            e.printStackTrace();
+            log.atError().addKeyValue("transactionId", transactionId).setCause(e).log("Update transaction failed");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error updating transaction: " + e.getMessage());
         }
     }
@@ -176,45 +369,72 @@ public class TransactionController {
     // Delete transaction
     @DeleteMapping("/{transactionId}")
     public ResponseEntity<?> deleteTransaction(@PathVariable Long transactionId) {
-        System.out.println("=== DELETE TRANSACTION REQUEST ===");
-        System.out.println("Transaction ID: " + transactionId);
+        log.atDebug().addKeyValue("transactionId", transactionId).log("Delete transaction request");
+        ResponseEntity<?> throttled = throttleOwner("delete", transactionId);
+        if (throttled != null) {
+            return throttled;
+        }
         
         try {
-            Transaction transaction = transactionRepository.findById(transactionId).orElse(null);
-            if (transaction == null) {
-                System.out.println("ERROR: Transaction not found");
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Transaction not found");
-            }
-            
-            User user = transaction.getUser();
-            System.out.println("Found user: " + user.getUsername());
-            System.out.println("Transaction type: " + transaction.getType());
-            
-            // Reverse the transaction effect on user balance
-            if (transaction.getType() == Transaction.TransactionType.CASHIN) {
-                // Subtract the cash in amount from balance
-                user.setBalance(user.getBalance().subtract(transaction.getCashIn()));
-                System.out.println("Reversed cash in of: " + transaction.getCashIn());
-            } else {
-                // Add back the cash out amount to balance
-                user.setBalance(user.getBalance().add(transaction.getCashOut()));
-                System.out.println("Reversed cash out of: " + transaction.getCashOut());
-            }
-            
-            System.out.println("Updated user balance: " + user.getBalance());
-            
-            // Save user and delete transaction
-            userRepository.save(user);
-            transactionRepository.delete(transaction);
-            
-            System.out.println("Transaction deleted successfully");
+            ledgerService.deleteTransaction(transactionId);
             return ResponseEntity.ok("Transaction deleted successfully");
             
+        } catch (LedgerException e) {
+            log.atInfo().addKeyValue("transactionId", transactionId).addKeyValue("reason", e.getReason())
+                    .log("Delete transaction rejected");
+            return ledgerError("delete", e);
         } catch (Exception e) {
-            System.out.println("ERROR during transaction deletion: " + e.getMessage());
-            e.printStackTrace();
+            log.atError().addKeyValue("transactionId", transactionId).setCause(e).log("Delete transaction failed");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error deleting transaction: " + e.getMessage());
         }
     }
-}
 
+    // Newest transactions. On a partitioned table the recent window is tried first so only
+    // recent partitions are read; without partitions the index serves the plain query directly
+    private List<TransactionView> latest(Long userId, Limit limit) {
+        if (partitionManager == null || !partitionManager.isActive()) {
+            return transactionRepository.findLatestByUser(userId, limit);
+        }
+        List<TransactionView> rows = transactionRepository.findLatestByUserSince(userId,
+                LocalDateTime.now().minus(recentWindow), limit);
+        return rows.size() < limit.max() ? transactionRepository.findLatestByUser(userId, limit) : rows;
+    }
+
+    private static ResponseEntity<?> idempotent(IdempotencyService.Outcome outcome) {
+        return ResponseEntity.ok()
+                .header("Idempotent-Replayed", Boolean.toString(outcome.replayed()))
+                .body(outcome.view());
+    }
+
+    // 429 with Retry-After when the user is over their write rate, null when the write may go ahead
+    private ResponseEntity<?> throttle(String operation, Long userId) {
+        Duration wait = admissionControl.tryConsume(userId);
+        if (wait.isZero()) {
+            return null;
+        }
+        ledgerMetrics.shed(operation, "user");
+        log.atDebug().addKeyValue("userId", userId).addKeyValue("operation", operation)
+                .addKeyValue("retryAfterMillis", wait.toMillis()).log("Write rate limited");
+        long seconds = Math.max(1, wait.plusMillis(999).toSeconds());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+                .body("Too many requests, retry in " + seconds + "s");
+    }
+
+    // Changes to a transaction count against its owner; an unknown id is left to the ledger to reject
+    private ResponseEntity<?> throttleOwner(String operation, Long transactionId) {
+        return transactionRepository.findUserIdById(transactionId)
+                .map(userId -> throttle(operation, userId))
+                .orElse(null);
+    }
+
+    private ResponseEntity<?> ledgerError(String operation, LedgerException e) {
+        ledgerMetrics.rejected(operation, e.getReason());
+        HttpStatus status = switch (e.getReason()) {
+            case TRANSACTION_NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case IDEMPOTENCY_KEY_REUSED -> HttpStatus.UNPROCESSABLE_ENTITY;
+            default -> HttpStatus.BAD_REQUEST;
+        };
+        return ResponseEntity.status(status).body(e.getMessage());
+    }
+}
@@ -1,65 +1,76 @@
 package com.example.MoneyBook.controller;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.MoneyBook.model.User;
 import com.example.MoneyBook.repo.UserRepository;
+import com.example.MoneyBook.service.CredentialCache;
+import com.example.MoneyBook.service.LedgerException;
+import com.example.MoneyBook.service.LedgerService;
+import com.example.MoneyBook.service.LedgerVersions;
+import com.example.MoneyBook.service.RecentWriters;
+import com.example.MoneyBook.service.UserCache;
 
 import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/users")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = "ETag")
 public class UserController {
 
+    private static final Logger log = LoggerFactory.getLogger(UserController.class);
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CredentialCache credentialCache;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private LedgerVersions ledgerVersions;
+
+    @Autowired
+    private RecentWriters recentWriters;
+
     // Register new user
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@RequestBody User user) {
-        System.out.println("=== REGISTRATION REQUEST ===");
-        System.out.println("Received registration request for user: " + user.getUsername());
-        System.out.println("Password: " + user.getPassword());
-        System.out.println("Balance: " + user.getBalance());
-        System.out.println("User object: " + user);
+        log.atDebug().addKeyValue("username", user.getUsername()).log("Registration request");
         
         // Validate input
         if (user.getUsername() == null || user.getUsername().trim().isEmpty()) {
-            System.out.println("ERROR: Username is null or empty");
             return ResponseEntity.badRequest().body("Username is required");
         }
         
         if (user.getPassword() == null || user.getPassword().trim().isEmpty()) {
-            System.out.println("ERROR: Password is null or empty");
             return ResponseEntity.badRequest().body("Password is required");
         }
         
         if (user.getBalance() == null) {
             user.setBalance(BigDecimal.valueOf(500.00));
-            System.out.println("Set default balance to: " + user.getBalance());
         }
         
         try {
-            System.out.println("Saving user with balance: " + user.getBalance());
             User savedUser = userRepository.save(user);
-            System.out.println("User saved successfully with ID: " + savedUser.getId());
-            System.out.println("Final saved user: " + savedUser.getUsername() + ", Balance: " + savedUser.getBalance());
+            credentialCache.invalidate(savedUser.getUsername());
+            recentWriters.wrote(savedUser.getId());
+            log.atInfo().addKeyValue("userId", savedUser.getId()).addKeyValue("username", savedUser.getUsername())
+                    .log("User registered");
             return ResponseEntity.ok(savedUser);
         } catch (Exception e) {
-            System.out.println("Error during registration: " + e.getMessage());
-            e.printStackTrace();
-            
-            // Show existing users for debugging
-            List<User> existingUsers = userRepository.findAll();
-            System.out.println("Existing users in database:");
-            for (User existingUser : existingUsers) {
-                System.out.println("- " + existingUser.getUsername() + " (ID: " + existingUser.getId() + ")");
-            }
-            
+            log.atWarn().addKeyValue("username", user.getUsername()).setCause(e).log("Registration failed");
             return ResponseEntity.badRequest().body("Username already exists");
         }
     }
@@ -67,38 +78,76 @@ public class UserController {
     // Login user
     @PostMapping("/login")
     public ResponseEntity<?> loginUser(@RequestBody User loginUser) {
-        System.out.println("Login attempt for user: " + loginUser.getUsername());
-        System.out.println("Password provided: " + loginUser.getPassword());
-        
-        List<User> users = userRepository.findAll();
-        System.out.println("Total users in database: " + users.size());
+        log.atDebug().addKeyValue("username", loginUser.getUsername()).log("Login attempt");
         
-        for (User user : users) {
-            System.out.println("Checking against user: " + user.getUsername() + " (ID: " + user.getId() + ")");
-            if (user.getUsername().equals(loginUser.getUsername()) && user.getPassword().equals(loginUser.getPassword())) {
-                System.out.println("Login successful for user: " + user.getUsername());
+        if (loginUser.getUsername() == null || loginUser.getPassword() == null) {
+            return ResponseEntity.status(401).body("Invalid credentials");
+        }
+
+        // Credentials verified recently: only a primary key lookup is needed.
+        // A password change since then bumped the profile version, so such an entry is not trusted
+        CredentialCache.Verified cached = credentialCache.verify(loginUser.getUsername(), loginUser.getPassword());
+        if (cached != null) {
+            User user = userCache.find(cached.userId());
+            if (user != null && user.getProfileVersion() == cached.profileVersion()) {
                 return ResponseEntity.ok(user);
             }
+            credentialCache.invalidate(loginUser.getUsername());
+        }
+
+        User user = userRepository.findByUsername(loginUser.getUsername());
+        if (user != null && user.getPassword().equals(loginUser.getPassword())) {
+            credentialCache.put(user.getUsername(), loginUser.getPassword(), user.getId(), user.getProfileVersion());
+            return ResponseEntity.ok(ledgerService.withCurrentBalance(user));
         }
-        System.out.println("Login failed - no matching credentials found");
+        log.atInfo().addKeyValue("username", loginUser.getUsername()).log("Login failed");
         return ResponseEntity.status(401).body("Invalid credentials");
     }
 
-    // Get user by ID
+    // Get user by ID, or 304 when If-None-Match still matches.
+    // The version is read before the user, so a racing change can only make the ETag older than the body.
     @GetMapping("/{id}")
-    public ResponseEntity<?> getUserById(@PathVariable Long id) {
-        return userRepository.findById(id)
-                .map(user -> ResponseEntity.ok(user))
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<?> getUserById(@PathVariable Long id, WebRequest request) {
+        long version = ledgerVersions.current(id);
+        User user = userCache.find(id);
+        if (user == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // Profile changes do not touch the ledger, so they carry their own version
+        if (request.checkNotModified(LedgerVersions.etag(id, version, user.getProfileVersion()))) {
+            return null;
+        }
+        return ResponseEntity.ok(user);
     }
 
     // Update user balance
     @PutMapping("/{id}/balance")
     public ResponseEntity<?> updateBalance(@PathVariable Long id, @RequestBody User userUpdate) {
+        try {
+            return ResponseEntity.ok(ledgerService.adjustBalance(id, userUpdate.getBalance()));
+        } catch (LedgerException e) {
+            if (e.getReason() == LedgerException.Reason.USER_NOT_FOUND) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Change user password
+    @PutMapping("/{id}/password")
+    public ResponseEntity<?> updatePassword(@PathVariable Long id, @RequestBody User userUpdate) {
+        if (userUpdate.getPassword() == null || userUpdate.getPassword().trim().isEmpty()) {
+            return ResponseEntity.badRequest().body("Password is required");
+        }
         return userRepository.findById(id)
                 .map(user -> {
-                    user.setBalance(userUpdate.getBalance());
-                    return ResponseEntity.ok(userRepository.save(user));
+                    user.setPassword(userUpdate.getPassword());
+                    user.setProfileVersion(user.getProfileVersion() + 1);
+                    User savedUser = userRepository.save(user);
+                    credentialCache.invalidate(savedUser.getUsername());
+                    userCache.evict(savedUser.getId());
+                    recentWriters.wrote(savedUser.getId());
+                    return ResponseEntity.ok(ledgerService.withCurrentBalance(savedUser));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -106,6 +155,6 @@ public class UserController {
     // Get all users
     @GetMapping
     public List<User> getAllUsers() {
-        return userRepository.findAll();
+        return userRepository.findAll().stream().map(ledgerService::withCurrentBalance).toList();
     }
 } 
\ No newline at end of file
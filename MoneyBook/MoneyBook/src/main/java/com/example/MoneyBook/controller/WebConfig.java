@@ -0,0 +1,34 @@
+package com.example.MoneyBook.controller;
+
+import com.example.MoneyBook.service.AdmissionControl;
+import com.example.MoneyBook.service.LedgerMetrics;
+import com.example.MoneyBook.service.RecentWriters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private RecentWriters recentWriters;
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    @Autowired
+    private LedgerMetrics ledgerMetrics;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Ledger writes are shed before they take a request thread's DB connection
+        registry.addInterceptor(new AdmissionControlInterceptor(admissionControl, ledgerMetrics))
+                .addPathPatterns("/api/transactions/**");
+        // Read-your-writes: which path variable names the user differs per API
+        registry.addInterceptor(new ReadRoutingInterceptor(recentWriters, "id"))
+                .addPathPatterns("/api/users/**");
+        registry.addInterceptor(new ReadRoutingInterceptor(recentWriters, "userId"))
+                .excludePathPatterns("/api/users/**");
+    }
+}
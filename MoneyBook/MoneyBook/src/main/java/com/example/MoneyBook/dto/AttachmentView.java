@@ -0,0 +1,18 @@
+package com.example.MoneyBook.dto;
+
+import com.example.MoneyBook.model.Attachment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Attachment metadata as returned to clients; the content itself is served by
+ * {@code GET /api/attachments/{id}}.
+ */
+public record AttachmentView(Long id, Long transactionId, String fileName, String contentType, long size,
+                             String sha256, LocalDateTime createdAt) {
+
+    public static AttachmentView from(Attachment attachment) {
+        return new AttachmentView(attachment.getId(), attachment.getTransactionId(), attachment.getFileName(),
+                attachment.getContentType(), attachment.getSize(), attachment.getSha256(), attachment.getCreatedAt());
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.MoneyBook.dto;
+
+import com.example.MoneyBook.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One line of a bulk import. transactionDate is optional and defaults to now.
+ */
+public record BatchEntry(Long userId,
+                         Transaction.TransactionType type,
+                         BigDecimal amount,
+                         String notes,
+                         LocalDateTime transactionDate) {
+}
@@ -0,0 +1,19 @@
+package com.example.MoneyBook.dto;
+
+/**
+ * Outcome of one bulk import entry; index is its position in the request.
+ */
+public record BatchEntryResult(int index, Status status, Long transactionId, String error) {
+
+    public enum Status {
+        OK, REJECTED
+    }
+
+    public static BatchEntryResult ok(int index, Long transactionId) {
+        return new BatchEntryResult(index, Status.OK, transactionId, null);
+    }
+
+    public static BatchEntryResult rejected(int index, String error) {
+        return new BatchEntryResult(index, Status.REJECTED, null, error);
+    }
+}
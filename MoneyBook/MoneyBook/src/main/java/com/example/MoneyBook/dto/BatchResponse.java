@@ -0,0 +1,6 @@
+package com.example.MoneyBook.dto;
+
+import java.util.List;
+
+public record BatchResponse(int accepted, int rejected, List<BatchEntryResult> results) {
+}
@@ -0,0 +1,15 @@
+package com.example.MoneyBook.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Server-sent notice that a user's ledger changed, covering every change since
+ * the previous notice on the same connection.
+ *
+ * @param changed ids of transactions created or updated
+ * @param deleted ids of transactions deleted
+ * @param resync  too many changes to list; the client should reload its history
+ */
+public record LedgerUpdate(Long userId, BigDecimal balance, List<Long> changed, List<Long> deleted, boolean resync) {
+}
@@ -0,0 +1,37 @@
+package com.example.MoneyBook.dto;
+
+import com.example.MoneyBook.model.DailySummary;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cash-in/cash-out totals of a user over a date range, with one entry per active day.
+ */
+public record SummaryResponse(Long userId, LocalDate from, LocalDate to,
+                              BigDecimal cashIn, BigDecimal cashOut, BigDecimal net,
+                              long transactionCount, List<Day> days) {
+
+    public record Day(LocalDate day, BigDecimal cashIn, BigDecimal cashOut, BigDecimal net, long transactionCount) {
+    }
+
+    public static SummaryResponse of(Long userId, LocalDate from, LocalDate to, List<DailySummary> rollups) {
+        BigDecimal cashIn = BigDecimal.ZERO;
+        BigDecimal cashOut = BigDecimal.ZERO;
+        long count = 0;
+        List<Day> days = new ArrayList<>(rollups.size());
+        for (DailySummary rollup : rollups) {
+            if (rollup.getTransactionCount() == 0) {
+                continue;
+            }
+            cashIn = cashIn.add(rollup.getCashIn());
+            cashOut = cashOut.add(rollup.getCashOut());
+            count += rollup.getTransactionCount();
+            days.add(new Day(rollup.getDay(), rollup.getCashIn(), rollup.getCashOut(),
+                    rollup.getCashIn().subtract(rollup.getCashOut()), rollup.getTransactionCount()));
+        }
+        return new SummaryResponse(userId, from, to, cashIn, cashOut, cashIn.subtract(cashOut), count, days);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.MoneyBook.dto;
+
+import com.example.MoneyBook.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A transaction as returned to clients: its own columns plus the owner's id,
+ * without the embedded user. History queries select it directly, so they read
+ * no user columns and need no join.
+ */
+public record TransactionView(Long id, Long userId, BigDecimal cashIn, BigDecimal cashOut,
+                              LocalDateTime transactionDate, Transaction.TransactionType type, String notes,
+                              Long linkedTransactionId) {
+
+    public static TransactionView from(Transaction transaction) {
+        return new TransactionView(transaction.getId(), transaction.getUserId(), transaction.getCashIn(),
+                transaction.getCashOut(), transaction.getTransactionDate(), transaction.getType(),
+                transaction.getNotes(), transaction.getLinkedTransactionId());
+    }
+}
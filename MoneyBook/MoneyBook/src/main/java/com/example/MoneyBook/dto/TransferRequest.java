@@ -0,0 +1,9 @@
+package com.example.MoneyBook.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Moves amount from one user's balance to another's.
+ */
+public record TransferRequest(Long fromUserId, Long toUserId, BigDecimal amount, String notes) {
+}
@@ -0,0 +1,7 @@
+package com.example.MoneyBook.dto;
+
+/**
+ * The two linked legs of a transfer: the sender's debit and the recipient's credit.
+ */
+public record TransferResponse(TransactionView debit, TransactionView credit) {
+}
@@ -0,0 +1,79 @@
+package com.example.MoneyBook.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A file (typically a receipt image) attached to a transaction. The content
+ * lives on disk under its SHA-256, so identical uploads share one blob.
+ */
+@Entity
+@Table(name = "attachments", indexes = {
+        @Index(name = "idx_attachments_transaction", columnList = "transaction_id"),
+        @Index(name = "idx_attachments_sha256", columnList = "sha256")
+})
+public class Attachment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(length = 64, nullable = false)
+    private String sha256;
+
+    @Column(length = 255)
+    private String fileName;
+
+    @Column(length = 100, nullable = false)
+    private String contentType;
+
+    @Column(nullable = false)
+    private long size;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    protected Attachment() {}
+
+    public Attachment(Long transactionId, String sha256, String fileName, String contentType, long size) {
+        this.transactionId = transactionId;
+        this.sha256 = sha256;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.size = size;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
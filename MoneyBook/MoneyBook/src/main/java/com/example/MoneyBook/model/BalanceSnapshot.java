@@ -0,0 +1,53 @@
+package com.example.MoneyBook.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Balance of a user as of ledger entry {@code lastSeq}.
+ */
+@Entity
+@Table(name = "balance_snapshots")
+public class BalanceSnapshot {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(precision = 14, scale = 2, nullable = false)
+    private BigDecimal balance;
+
+    @Column(nullable = false)
+    private long lastSeq;
+
+    @Column(nullable = false)
+    private LocalDateTime takenAt;
+
+    // Constructors
+    protected BalanceSnapshot() {}
+
+    public BalanceSnapshot(Long userId, BigDecimal balance, long lastSeq) {
+        this.userId = userId;
+        this.balance = balance;
+        this.lastSeq = lastSeq;
+        this.takenAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+}
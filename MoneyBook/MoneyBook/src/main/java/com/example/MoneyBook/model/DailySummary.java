@@ -0,0 +1,71 @@
+package com.example.MoneyBook.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Per-user, per-day rollup of cash movements, kept up to date on every
+ * transaction write so summaries never have to scan the transactions table.
+ */
+@Entity
+@Table(name = "daily_summaries", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_summaries_user_date", columnNames = {"user_id", "summary_date"})
+})
+public class DailySummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate day;
+
+    @Column(precision = 14, scale = 2, nullable = false)
+    private BigDecimal cashIn = BigDecimal.ZERO;
+
+    @Column(precision = 14, scale = 2, nullable = false)
+    private BigDecimal cashOut = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private long transactionCount;
+
+    // Constructors
+    public DailySummary() {}
+
+    public DailySummary(Long userId, LocalDate day, BigDecimal cashIn, BigDecimal cashOut, long transactionCount) {
+        this.userId = userId;
+        this.day = day;
+        this.cashIn = cashIn;
+        this.cashOut = cashOut;
+        this.transactionCount = transactionCount;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public BigDecimal getCashIn() {
+        return cashIn;
+    }
+
+    public BigDecimal getCashOut() {
+        return cashOut;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+}
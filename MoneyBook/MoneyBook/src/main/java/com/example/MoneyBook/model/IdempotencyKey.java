@@ -0,0 +1,76 @@
+package com.example.MoneyBook.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A client-supplied Idempotency-Key that has been used for a deposit or
+ * withdrawal, and the transaction it produced. The unique (user, key) pair is
+ * what makes a duplicate request fail even when no in-memory record of the
+ * first one is left.
+ */
+@Entity
+@Table(name = "idempotency_keys", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_idempotency_keys_user_key", columnNames = {"user_id", "idempotency_key"})
+}, indexes = {
+        @Index(name = "idx_idempotency_keys_created", columnList = "created_at")
+})
+public class IdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "idempotency_keys_seq")
+    @SequenceGenerator(name = "idempotency_keys_seq", sequenceName = "idempotency_keys_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", length = 64, nullable = false, updatable = false)
+    private String key;
+
+    // SHA-256 of the operation and its parameters, to detect a key reused for a different request
+    @Column(length = 64, nullable = false, updatable = false)
+    private String fingerprint;
+
+    @Column(name = "transaction_id", nullable = false, updatable = false)
+    private Long transactionId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    protected IdempotencyKey() {}
+
+    public IdempotencyKey(Long userId, String key, String fingerprint, Long transactionId) {
+        this.userId = userId;
+        this.key = key;
+        this.fingerprint = fingerprint;
+        this.transactionId = transactionId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
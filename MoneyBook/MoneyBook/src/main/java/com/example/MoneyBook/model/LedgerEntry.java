@@ -0,0 +1,87 @@
+package com.example.MoneyBook.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable balance movement of one user in the append-only ledger. Entries of
+ * a user are numbered without gaps by {@code seq}, so the balance is the latest
+ * snapshot plus the sum of the entries after the snapshot's sequence number.
+ */
+@Entity
+@Table(name = "ledger_entries", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ledger_entries_user_seq", columnNames = {"user_id", "seq"})
+})
+public class LedgerEntry {
+
+    public enum Kind {
+        CASHIN, CASHOUT, CORRECTION, REVERSAL, ADJUSTMENT, TRANSFER
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_entries_seq")
+    @SequenceGenerator(name = "ledger_entries_seq", sequenceName = "ledger_entries_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Long userId;
+
+    @Column(nullable = false, updatable = false)
+    private long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private Kind kind;
+
+    // Signed effect on the balance
+    @Column(precision = 14, scale = 2, nullable = false, updatable = false)
+    private BigDecimal amount;
+
+    @Column(name = "transaction_id", updatable = false)
+    private Long transactionId;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    protected LedgerEntry() {}
+
+    public LedgerEntry(Long userId, long seq, Kind kind, BigDecimal amount, Long transactionId) {
+        this.userId = userId;
+        this.seq = seq;
+        this.kind = kind;
+        this.amount = amount;
+        this.transactionId = transactionId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
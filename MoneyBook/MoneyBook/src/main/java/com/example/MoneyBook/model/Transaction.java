@@ -6,14 +6,20 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // Serves the per-user history and keyset pagination queries
+        @Index(name = "idx_transactions_user_date_id", columnList = "user_id, transaction_date, id")
+})
 public class Transaction {
     
+    // Pooled sequence rather than IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Responses carry only the user id (see TransactionView), so the user is never needed eagerly
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
@@ -23,7 +29,7 @@ public class Transaction {
     @Column(precision = 10, scale = 2, nullable = false)
     private BigDecimal cashOut = BigDecimal.ZERO;
     
-    @Column(nullable = false)
+    @Column(name = "transaction_date", nullable = false)
     private LocalDateTime transactionDate;
     
     @Enumerated(EnumType.STRING)
@@ -33,8 +39,12 @@ public class Transaction {
     @Column(length = 500)
     private String notes;
     
+    // A transfer is recorded as two TRANSFER rows, each pointing at the other leg
+    @Column(name = "linked_transaction_id")
+    private Long linkedTransactionId;
+    
     public enum TransactionType {
-        CASHIN, CASHOUT
+        CASHIN, CASHOUT, TRANSFER
     }
     
     // Constructors
@@ -104,6 +114,14 @@ public class Transaction {
         this.notes = notes;
     }
 
+    public Long getLinkedTransactionId() {
+        return linkedTransactionId;
+    }
+
+    public void setLinkedTransactionId(Long linkedTransactionId) {
+        this.linkedTransactionId = linkedTransactionId;
+    }
+
     public Long getUserId() {
         return user != null ? user.getId() : null;
     }
@@ -112,12 +130,13 @@ public class Transaction {
     public String toString() {
         return "Transaction{" +
                 "id=" + id +
-                ", user=" + user.getUsername() +
+                ", userId=" + getUserId() +
                 ", cashIn=" + cashIn +
                 ", cashOut=" + cashOut +
                 ", transactionDate=" + transactionDate +
                 ", type=" + type +
                 ", notes=" + notes +
+                ", linkedTransactionId=" + linkedTransactionId +
                 '}';
     }
 }
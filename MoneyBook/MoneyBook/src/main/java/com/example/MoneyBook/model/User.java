@@ -1,10 +1,13 @@
 package com.example.MoneyBook.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.math.BigDecimal;
 
 @Entity
+@DynamicUpdate
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "users")
 public class User {
@@ -24,6 +27,16 @@ public class User {
     
     @Column(precision = 10, scale = 2, nullable = false)
     private BigDecimal balance = BigDecimal.valueOf(500.00);
+
+    // Bumped with every balance change in mutable ledger mode; see LedgerVersions
+    @JsonIgnore
+    @Column(name = "ledger_version", nullable = false)
+    private long ledgerVersion;
+
+    // Bumped with every password (or other profile) change; see LedgerVersions
+    @JsonIgnore
+    @Column(name = "profile_version", nullable = false)
+    private long profileVersion;
     
     // Constructors
     public User() {}
@@ -87,13 +100,29 @@ public class User {
         this.balance = balance;
     }
     
+    public long getLedgerVersion() {
+        return ledgerVersion;
+    }
+    
+    public void setLedgerVersion(long ledgerVersion) {
+        this.ledgerVersion = ledgerVersion;
+    }
+    
+    public long getProfileVersion() {
+        return profileVersion;
+    }
+    
+    public void setProfileVersion(long profileVersion) {
+        this.profileVersion = profileVersion;
+    }
+    
     @Override
     public String toString() {
         return "User{" +
                 "id=" + id +
                 ", username='" + username + '\'' +
                 ", name='" + name + '\'' +
-                ", password='" + password + '\'' +
+                ", password='[REDACTED]'" +
                 ", balance=" + balance +
                 '}';
     }
@@ -0,0 +1,23 @@
+package com.example.MoneyBook.repo;
+
+import com.example.MoneyBook.model.Attachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
+
+    List<Attachment> findByTransactionIdOrderById(Long transactionId);
+
+    // Number of attachments sharing a blob; the blob may be removed at zero
+    long countBySha256(String sha256);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Attachment a where a.transactionId = :transactionId")
+    int deleteByTransactionId(@Param("transactionId") Long transactionId);
+}
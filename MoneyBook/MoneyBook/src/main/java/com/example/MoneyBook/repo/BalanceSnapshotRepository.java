@@ -0,0 +1,9 @@
+package com.example.MoneyBook.repo;
+
+import com.example.MoneyBook.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+}
@@ -0,0 +1,31 @@
+package com.example.MoneyBook.repo;
+
+import com.example.MoneyBook.model.DailySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailySummaryRepository extends JpaRepository<DailySummary, Long> {
+
+    List<DailySummary> findByUserIdAndDayBetweenOrderByDay(Long userId, LocalDate from, LocalDate to);
+
+    // Add deltas to an existing rollup row; returns 0 when the row does not exist yet
+    @Modifying(flushAutomatically = true)
+    @Query("update DailySummary s set s.cashIn = s.cashIn + :cashIn, s.cashOut = s.cashOut + :cashOut, "
+            + "s.transactionCount = s.transactionCount + :count where s.userId = :userId and s.day = :day")
+    int accumulate(@Param("userId") Long userId, @Param("day") LocalDate day,
+                   @Param("cashIn") BigDecimal cashIn, @Param("cashOut") BigDecimal cashOut,
+                   @Param("count") long count);
+
+    // Rollups recomputed from the transactions table, as [userId, day, cashIn, cashOut, count]
+    @Query("select t.user.id, cast(t.transactionDate as LocalDate), sum(t.cashIn), sum(t.cashOut), count(t) "
+            + "from Transaction t group by t.user.id, cast(t.transactionDate as LocalDate)")
+    List<Object[]> aggregateTransactions();
+}
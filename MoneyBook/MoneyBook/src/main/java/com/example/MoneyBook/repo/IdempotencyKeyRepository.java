@@ -0,0 +1,21 @@
+package com.example.MoneyBook.repo;
+
+import com.example.MoneyBook.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    Optional<IdempotencyKey> findByUserIdAndKey(Long userId, String key);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,21 @@
+package com.example.MoneyBook.repo;
+
+import com.example.MoneyBook.model.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    // Sequence number of the user's latest entry, 0 when there is none
+    @Query("select coalesce(max(e.seq), 0) from LedgerEntry e where e.userId = :userId")
+    long findLastSeq(@Param("userId") Long userId);
+
+    // Net effect of the user's entries after the given sequence number
+    @Query("select coalesce(sum(e.amount), 0) from LedgerEntry e where e.userId = :userId and e.seq > :afterSeq")
+    BigDecimal sumAfter(@Param("userId") Long userId, @Param("afterSeq") long afterSeq);
+}
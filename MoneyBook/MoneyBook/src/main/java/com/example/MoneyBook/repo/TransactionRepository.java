@@ -1,10 +1,65 @@
 package com.example.MoneyBook.repo;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.MoneyBook.dto.TransactionView;
 import com.example.MoneyBook.model.Transaction;
 
+import jakarta.persistence.LockModeType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// History reads are read-only transactions so that, with a replica configured, they are served by it
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    String VIEW = "select new com.example.MoneyBook.dto.TransactionView("
+            + "t.id, t.user.id, t.cashIn, t.cashOut, t.transactionDate, t.type, t.notes, t.linkedTransactionId) ";
+
+    // Newest transactions of a user (first page of the history)
+    @Transactional(readOnly = true)
+    @Query(VIEW + "from Transaction t where t.user.id = :userId "
+            + "order by t.transactionDate desc, t.id desc")
+    List<TransactionView> findLatestByUser(@Param("userId") Long userId, Limit limit);
+
+    // Newest transactions of a user on or after since; bounds the scan to recent (partitions of) history
+    @Transactional(readOnly = true)
+    @Query(VIEW + "from Transaction t where t.user.id = :userId and t.transactionDate >= :since "
+            + "order by t.transactionDate desc, t.id desc")
+    List<TransactionView> findLatestByUserSince(@Param("userId") Long userId,
+                                                @Param("since") LocalDateTime since,
+                                                Limit limit);
+
+    // Transactions of a user strictly older than the (date, id) cursor
+    @Transactional(readOnly = true)
+    @Query(VIEW + "from Transaction t where t.user.id = :userId "
+            + "and (t.transactionDate < :date or (t.transactionDate = :date and t.id < :id)) "
+            + "order by t.transactionDate desc, t.id desc")
+    List<TransactionView> findPageBefore(@Param("userId") Long userId,
+                                     @Param("date") LocalDateTime date,
+                                     @Param("id") Long id,
+                                     Limit limit);
+
+    // Rows for a set of ids, e.g. search hits; callers restore their own order
+    @Transactional(readOnly = true)
+    @Query(VIEW + "from Transaction t where t.id in :ids")
+    List<TransactionView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Owner of a transaction, without loading or locking it
+    @Query("select t.user.id from Transaction t where t.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    // Load a transaction and lock its row until the surrounding transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Transaction t where t.id = :id")
+    Optional<Transaction> findByIdForUpdate(@Param("id") Long id);
 }
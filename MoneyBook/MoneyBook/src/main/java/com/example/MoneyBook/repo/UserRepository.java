@@ -2,9 +2,45 @@ package com.example.MoneyBook.repo;
 
 import com.example.MoneyBook.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     User findByUsername(String username);
+
+    // Atomically add delta to the balance and bump the ledger version; returns the number of rows updated
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.balance = u.balance + :delta, u.ledgerVersion = u.ledgerVersion + 1 "
+            + "where u.id = :id")
+    int addToBalance(@Param("id") Long id, @Param("delta") BigDecimal delta);
+
+    // Like addToBalance, but only when the resulting balance is not negative
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.balance = u.balance + :delta, u.ledgerVersion = u.ledgerVersion + 1 "
+            + "where u.id = :id and u.balance + :delta >= 0")
+    int addToBalanceIfSufficient(@Param("id") Long id, @Param("delta") BigDecimal delta);
+
+    @Query("select u.ledgerVersion from User u where u.id = :id")
+    Optional<Long> findLedgerVersion(@Param("id") Long id);
+
+    // Load a user and lock its row until the surrounding transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Long id);
+
+    // Lock several users in ascending id order so concurrent callers cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.id in :ids order by u.id")
+    List<User> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,114 @@
+package com.example.MoneyBook.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for ledger writes, so one client flooding the API cannot
+ * take the request threads and DB connections every other user needs.
+ * Requests over a limit are refused at once instead of queueing:
+ * <ul>
+ *   <li>a global limit on writes in flight, by default the size of the Hikari
+ *       pool, so writes never wait for a connection</li>
+ *   <li>a token bucket per user allowing {@code admission.user.rate} writes per
+ *       second with bursts of up to {@code admission.user.burst}</li>
+ * </ul>
+ * Buckets of users that stopped writing are evicted after
+ * {@code admission.user.idle-eviction}. An idle bucket is full again, so
+ * evicting it loses nothing as long as that exceeds burst / rate.
+ * With {@code admission.enabled=false} every write is admitted.
+ */
+@Component
+public class AdmissionControl {
+
+    private final boolean enabled;
+    private final Semaphore inFlight;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final Cache<Long, TokenBucket> buckets;
+
+    public AdmissionControl(@Value("${admission.enabled:true}") boolean enabled,
+                            @Value("${admission.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxInFlight,
+                            @Value("${admission.user.rate:20}") double ratePerSecond,
+                            @Value("${admission.user.burst:40}") int burst,
+                            @Value("${admission.user.idle-eviction:PT10M}") Duration idleEviction,
+                            @Value("${admission.user.max-tracked:100000}") long maxTrackedUsers,
+                            MeterRegistry registry) {
+        this.enabled = enabled;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.toleranceNanos = intervalNanos * burst;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedUsers)
+                .expireAfterAccess(idleEviction)
+                .build();
+        Gauge.builder("ledger.admission.in-flight", inFlight, permits -> maxInFlight - permits.availablePermits())
+                .description("Ledger writes currently admitted")
+                .register(registry);
+        Gauge.builder("ledger.admission.tracked-users", buckets, Cache::estimatedSize)
+                .description("Users with a rate limit bucket in memory")
+                .register(registry);
+    }
+
+    // Takes a slot for a write without waiting; a successful call must be paired with exit()
+    public boolean tryEnter() {
+        return !enabled || inFlight.tryAcquire();
+    }
+
+    public void exit() {
+        if (enabled) {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Takes one token from the user's bucket. Returns zero when the write is
+     * admitted, otherwise how long the user has to wait for the next token.
+     */
+    public Duration tryConsume(Long userId) {
+        if (!enabled) {
+            return Duration.ZERO;
+        }
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(userId, id -> new TokenBucket(now));
+        long wait = bucket.tryConsume(now, intervalNanos, toleranceNanos);
+        return wait == 0 ? Duration.ZERO : Duration.ofNanos(wait);
+    }
+
+    /**
+     * A token bucket kept as a single timestamp (the generic cell rate
+     * algorithm): the time at which the bucket will be full again. Taking a
+     * token pushes it one interval further; a token is available while it lies
+     * at most burst intervals ahead. Updated with compare-and-set only.
+     */
+    static final class TokenBucket {
+
+        private final AtomicLong fullAt;
+
+        TokenBucket(long fullAt) {
+            this.fullAt = new AtomicLong(fullAt);
+        }
+
+        long tryConsume(long now, long intervalNanos, long toleranceNanos) {
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + intervalNanos;
+                long wait = next - now - toleranceNanos;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.MoneyBook.service;
+
+import com.example.MoneyBook.model.BalanceSnapshot;
+import com.example.MoneyBook.model.LedgerEntry;
+import com.example.MoneyBook.model.Transaction;
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.BalanceSnapshotRepository;
+import com.example.MoneyBook.repo.LedgerEntryRepository;
+import com.example.MoneyBook.repo.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Balances derived from immutable {@link LedgerEntry} rows. {@code users.balance}
+ * is only the opening balance and is never written after registration; a post
+ * takes the user's row lock to number its entry, then appends. A balance is the
+ * latest {@link BalanceSnapshot} plus the entries after it, and
+ * {@link BalanceSnapshotJob} keeps that tail short. A user posting faster than
+ * the job runs would make every post sum a longer tail under the lock, so a post
+ * that takes the tail to {@code ledger.snapshot.max-tail} entries snapshots the
+ * user itself.
+ *
+ * Posts for one user are serialized on purpose: the funds check has to see
+ * every earlier entry, and entries are numbered without gaps. The lock is the
+ * {@code users} row, which this mode never updates, so it only queues ledger
+ * writes and password changes of that user; reads and other users do not wait.
+ * Appending optimistically and retrying on a clash of the unique
+ * {@code (user_id, seq)} key would drop the lock, but on a hot user most
+ * attempts would clash and redo the funds check. A separate lock row, such as
+ * the snapshot, would have to exist for every user up front and would queue
+ * the same writes.
+ */
+@Component
+@ConditionalOnProperty(name = "ledger.mode", havingValue = "append-only")
+public class AppendOnlyBalanceStore implements BalanceStore {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${ledger.snapshot.threshold:100}")
+    private int snapshotThreshold;
+
+    @Value("${ledger.snapshot.max-tail:500}")
+    private int maxTail;
+
+    // Committed entries per user since its last snapshot taken by this instance
+    private final ConcurrentHashMap<Long, Integer> tailLengths = new ConcurrentHashMap<>();
+
+    @Override
+    public Transaction post(Long userId, BigDecimal delta, boolean requireFunds, LedgerEntry.Kind kind,
+                            Function<User, Transaction> write) {
+        User user = userRepository.findByIdForUpdate(userId).orElseThrow(LedgerException::userNotFound);
+        if (requireFunds && balanceOf(user).add(delta).signum() < 0) {
+            throw LedgerException.insufficientFunds();
+        }
+        Transaction transaction = write.apply(user);
+        long seq = ledgerEntryRepository.findLastSeq(userId) + 1;
+        append(userId, seq, kind, delta, transaction != null ? transaction.getId() : null);
+        trimTail(userId, seq, 1);
+        return transaction;
+    }
+
+    @Override
+    public User setBalance(Long userId, BigDecimal balance) {
+        User user = userRepository.findByIdForUpdate(userId).orElseThrow(LedgerException::userNotFound);
+        BigDecimal delta = balance.subtract(balanceOf(user));
+        if (delta.signum() != 0) {
+            long seq = ledgerEntryRepository.findLastSeq(userId) + 1;
+            append(userId, seq, LedgerEntry.Kind.ADJUSTMENT, delta, null);
+            trimTail(userId, seq, 1);
+            entityManager.flush();
+        }
+        entityManager.detach(user);
+        user.setBalance(balance);
+        return user;
+    }
+
+    @Override
+    public Map<Long, BigDecimal> lockAll(Collection<Long> userIds) {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            for (User user : userRepository.findAllByIdForUpdate(userIds)) {
+                balances.put(user.getId(), balanceOf(user));
+            }
+        }
+        return balances;
+    }
+
+    @Override
+    public void postAll(Map<Long, BigDecimal> deltas, List<Transaction> transactions) {
+        // One entry per row (batch entry or transfer leg), numbered on from each user's latest entry
+        Map<Long, Long> seqs = new HashMap<>();
+        Map<Long, Integer> appended = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            Long userId = transaction.getUserId();
+            long seq = seqs.computeIfAbsent(userId, ledgerEntryRepository::findLastSeq) + 1;
+            seqs.put(userId, seq);
+            LedgerEntry.Kind kind = switch (transaction.getType()) {
+                case CASHIN -> LedgerEntry.Kind.CASHIN;
+                case CASHOUT -> LedgerEntry.Kind.CASHOUT;
+                case TRANSFER -> LedgerEntry.Kind.TRANSFER;
+            };
+            append(userId, seq, kind, LedgerService.signedAmount(transaction), transaction.getId());
+            appended.merge(userId, 1, Integer::sum);
+        }
+        appended.forEach((userId, entries) -> trimTail(userId, seqs.get(userId), entries));
+    }
+
+    @Override
+    public BigDecimal balanceOf(Long userId) {
+        return balanceOf(userRepository.findById(userId).orElseThrow(LedgerException::userNotFound));
+    }
+
+    // Entries are numbered without gaps and every change appends one, so the latest number is the version
+    @Override
+    public long versionOf(Long userId) {
+        return ledgerEntryRepository.findLastSeq(userId);
+    }
+
+    @Override
+    public User withCurrentBalance(User user) {
+        BigDecimal balance = balanceOf(user);
+        if (entityManager.contains(user)) {
+            entityManager.detach(user);
+        }
+        user.setBalance(balance);
+        return user;
+    }
+
+    /**
+     * Records the user's current balance so later reads only sum the entries
+     * appended after it. Holds the user's row lock so no entry is appended meanwhile.
+     */
+    @Transactional
+    public void snapshot(Long userId) {
+        User user = userRepository.findByIdForUpdate(userId).orElse(null);
+        if (user == null) {
+            tailLengths.remove(userId);
+            return;
+        }
+        long lastSeq = ledgerEntryRepository.findLastSeq(userId);
+        balanceSnapshotRepository.save(new BalanceSnapshot(userId, balanceOf(user), lastSeq));
+        tailLengths.remove(userId);
+    }
+
+    // Users whose tail reached the snapshot threshold
+    List<Long> usersDueForSnapshot() {
+        return tailLengths.entrySet().stream()
+                .filter(e -> e.getValue() >= snapshotThreshold)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private BigDecimal balanceOf(User user) {
+        BalanceSnapshot snapshot = balanceSnapshotRepository.findById(user.getId()).orElse(null);
+        BigDecimal base = snapshot != null ? snapshot.getBalance() : user.getBalance();
+        long afterSeq = snapshot != null ? snapshot.getLastSeq() : 0;
+        return base.add(ledgerEntryRepository.sumAfter(user.getId(), afterSeq));
+    }
+
+    private void append(Long userId, long seq, LedgerEntry.Kind kind, BigDecimal amount, Long transactionId) {
+        ledgerEntryRepository.save(new LedgerEntry(userId, seq, kind, amount, transactionId));
+    }
+
+    // Called with the user's row lock held, after appending entries up to lastSeq.
+    // The tail is judged by this instance's count, so the common case costs no query
+    private void trimTail(Long userId, long lastSeq, int entries) {
+        if (tailLengths.getOrDefault(userId, 0) + entries < maxTail) {
+            afterCommit(() -> tailLengths.merge(userId, entries, Integer::sum));
+            return;
+        }
+        // The new entries are flushed before the sum, so the snapshot includes them
+        balanceSnapshotRepository.save(new BalanceSnapshot(userId, balanceOf(userId), lastSeq));
+        afterCommit(() -> tailLengths.remove(userId));
+    }
+
+    // Rolled-back entries (refused funds, reused idempotency keys) must not make a user due for a snapshot
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
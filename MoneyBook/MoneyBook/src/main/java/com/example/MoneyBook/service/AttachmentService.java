@@ -0,0 +1,224 @@
+package com.example.MoneyBook.service;
+
+import com.example.MoneyBook.model.Attachment;
+import com.example.MoneyBook.repo.AttachmentRepository;
+import com.example.MoneyBook.repo.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stores transaction attachments as content-addressed blobs:
+ * {@code <root>/blobs/ab/<sha256>}, thumbnails under {@code <root>/thumbs}.
+ *
+ * Uploads are copied to a temp file through a fixed direct buffer while being
+ * hashed, so a file is never held in heap, then moved into place; a blob that
+ * already exists is simply reused. Blobs are deleted once no attachment row
+ * refers to them. Placing and releasing a blob hold a per-hash lock so the two
+ * cannot interleave.
+ */
+@Service
+public class AttachmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(AttachmentService.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Value("${attachments.root:data/attachments}")
+    private String rootDirectory;
+
+    private Path root;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[64];
+
+    public AttachmentService() {
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    void createDirectories() throws IOException {
+        root = Path.of(rootDirectory).toAbsolutePath();
+        Files.createDirectories(root.resolve("tmp"));
+        Files.createDirectories(root.resolve("blobs"));
+        Files.createDirectories(root.resolve("thumbs"));
+    }
+
+    public Attachment store(Long transactionId, String fileName, String contentType, InputStream content)
+            throws IOException {
+        if (!transactionRepository.existsById(transactionId)) {
+            throw LedgerException.transactionNotFound();
+        }
+        String type = contentType == null || contentType.isBlank() ? DEFAULT_CONTENT_TYPE : contentType;
+        Path tmp = Files.createTempFile(root.resolve("tmp"), "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            try (ReadableByteChannel in = Channels.newChannel(content);
+                 FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (in.read(buffer) != -1) {
+                    buffer.flip();
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        size += out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+            String sha = HexFormat.of().formatHex(digest.digest());
+
+            Attachment saved;
+            ReentrantLock lock = stripe(sha);
+            lock.lock();
+            try {
+                Path blob = blobPath(sha);
+                if (!Files.exists(blob)) {
+                    Files.createDirectories(blob.getParent());
+                    try {
+                        Files.move(tmp, blob, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (FileAlreadyExistsException e) {
+                        // Same content placed concurrently by another instance sharing the directory
+                    }
+                }
+                saved = attachmentRepository.save(new Attachment(transactionId, sha, fileName, type, size));
+            } finally {
+                lock.unlock();
+            }
+            if (type.startsWith("image/")) {
+                thumbnailService.request(blobPath(sha), thumbnailPath(sha));
+            }
+            log.atDebug().addKeyValue("transactionId", transactionId).addKeyValue("sha256", sha)
+                    .addKeyValue("size", size).log("Attachment stored");
+            return saved;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public List<Attachment> findByTransaction(Long transactionId) {
+        return attachmentRepository.findByTransactionIdOrderById(transactionId);
+    }
+
+    public Attachment find(Long id) {
+        return attachmentRepository.findById(id).orElse(null);
+    }
+
+    public Path content(Attachment attachment) {
+        return blobPath(attachment.getSha256());
+    }
+
+    // The thumbnail if it has been rendered; otherwise requests it and returns null
+    public Path thumbnail(Attachment attachment) {
+        Path thumbnail = thumbnailPath(attachment.getSha256());
+        if (Files.exists(thumbnail)) {
+            return thumbnail;
+        }
+        if (attachment.getContentType().startsWith("image/")) {
+            thumbnailService.request(content(attachment), thumbnail);
+        }
+        return null;
+    }
+
+    public boolean delete(Long id) {
+        Attachment attachment = attachmentRepository.findById(id).orElse(null);
+        if (attachment == null) {
+            return false;
+        }
+        attachmentRepository.delete(attachment);
+        releaseBlob(attachment.getSha256());
+        return true;
+    }
+
+    /**
+     * Deletes the attachments of a transaction being deleted in the current DB
+     * transaction; their blobs are released once it commits.
+     */
+    public void deleteForTransaction(Long transactionId) {
+        Set<String> shas = new LinkedHashSet<>();
+        for (Attachment attachment : attachmentRepository.findByTransactionIdOrderById(transactionId)) {
+            shas.add(attachment.getSha256());
+        }
+        if (shas.isEmpty()) {
+            return;
+        }
+        attachmentRepository.deleteByTransactionId(transactionId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                shas.forEach(AttachmentService.this::releaseBlob);
+            }
+        });
+    }
+
+    private void releaseBlob(String sha) {
+        ReentrantLock lock = stripe(sha);
+        lock.lock();
+        try {
+            if (attachmentRepository.countBySha256(sha) == 0) {
+                Files.deleteIfExists(blobPath(sha));
+                Files.deleteIfExists(thumbnailPath(sha));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Path blobPath(String sha) {
+        return root.resolve("blobs").resolve(sha.substring(0, 2)).resolve(sha);
+    }
+
+    private Path thumbnailPath(String sha) {
+        return root.resolve("thumbs").resolve(sha.substring(0, 2)).resolve(sha + ".jpg");
+    }
+
+    private ReentrantLock stripe(String sha) {
+        return stripes[Math.floorMod(sha.hashCode(), stripes.length)];
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.MoneyBook.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically snapshots the balance of users whose ledger tail grew past
+ * {@code ledger.snapshot.threshold} entries, one short transaction per user.
+ */
+@Component
+@ConditionalOnProperty(name = "ledger.mode", havingValue = "append-only")
+public class BalanceSnapshotJob {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceSnapshotJob.class);
+
+    @Autowired
+    private AppendOnlyBalanceStore balanceStore;
+
+    @Scheduled(fixedDelayString = "${ledger.snapshot.interval:PT30S}")
+    public void snapshotDueUsers() {
+        int taken = 0;
+        for (Long userId : balanceStore.usersDueForSnapshot()) {
+            try {
+                balanceStore.snapshot(userId);
+                taken++;
+            } catch (RuntimeException e) {
+                log.atWarn().addKeyValue("userId", userId).setCause(e).log("Balance snapshot failed");
+            }
+        }
+        if (taken > 0) {
+            log.atDebug().addKeyValue("users", taken).log("Balance snapshots taken");
+        }
+    }
+}
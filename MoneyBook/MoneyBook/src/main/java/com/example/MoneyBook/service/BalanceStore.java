@@ -0,0 +1,48 @@
+package com.example.MoneyBook.service;
+
+import com.example.MoneyBook.model.LedgerEntry;
+import com.example.MoneyBook.model.Transaction;
+import com.example.MoneyBook.model.User;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * How user balances are persisted. Selected with {@code ledger.mode}:
+ * {@code mutable} (default) keeps the balance in {@code users.balance},
+ * {@code append-only} derives it from immutable ledger entries and snapshots.
+ *
+ * All methods must run inside a ledger DB transaction.
+ */
+public interface BalanceStore {
+
+    /**
+     * Moves the user's balance by delta and runs write, which persists the
+     * transaction row the movement belongs to (and may return null when there is none).
+     *
+     * @param requireFunds refuse the change when the resulting balance would be negative
+     * @throws LedgerException when the user does not exist or funds are insufficient
+     */
+    Transaction post(Long userId, BigDecimal delta, boolean requireFunds, LedgerEntry.Kind kind,
+                     Function<User, Transaction> write);
+
+    // Sets the balance to an absolute value, recorded as an adjustment
+    User setBalance(Long userId, BigDecimal balance);
+
+    // Locks the users in ascending id order and returns their current balances
+    Map<Long, BigDecimal> lockAll(Collection<Long> userIds);
+
+    // Applies a batch whose users were locked by lockAll; deltas holds the net change per user
+    void postAll(Map<Long, BigDecimal> deltas, List<Transaction> transactions);
+
+    BigDecimal balanceOf(Long userId);
+
+    // Increases with every committed change to the user's balance or transactions; 0 for an unknown user
+    long versionOf(Long userId);
+
+    // The user as it should be returned to clients, with its current balance
+    User withCurrentBalance(User user);
+}
@@ -0,0 +1,66 @@
+package com.example.MoneyBook.service;
+
+import com.example.MoneyBook.dto.BatchEntry;
+import com.example.MoneyBook.dto.BatchEntryResult;
+import com.example.MoneyBook.dto.BatchResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a bulk import incrementally (a JSON array or newline-delimited JSON)
+ * and hands it to the ledger in fixed-size chunks, so the request body is never
+ * held in memory as a whole.
+ */
+@Service
+public class BatchIngestService {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    private final ObjectReader entryReader;
+
+    @Value("${transactions.batch.chunk-size:1000}")
+    private int chunkSize;
+
+    public BatchIngestService(ObjectMapper objectMapper) {
+        this.entryReader = objectMapper.readerFor(BatchEntry.class);
+    }
+
+    public BatchResponse ingest(InputStream body) throws IOException {
+        List<BatchEntryResult> results = new ArrayList<>();
+        List<BatchEntry> chunk = new ArrayList<>(chunkSize);
+        String malformed = null;
+        // A top-level array is iterated element by element; NDJSON is a sequence of root values
+        try (MappingIterator<BatchEntry> entries = entryReader.readValues(body)) {
+            while (entries.hasNextValue()) {
+                chunk.add(entries.nextValue());
+                if (chunk.size() == chunkSize) {
+                    results.addAll(ledgerService.applyBatch(chunk, results.size()));
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // The stream cannot be resynchronised; keep what was read and report where it stopped
+            malformed = "Malformed entry: " + e.getOriginalMessage();
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(ledgerService.applyBatch(chunk, results.size()));
+        }
+        if (malformed != null) {
+            results.add(BatchEntryResult.rejected(results.size(), malformed));
+        }
+
+        int accepted = (int) results.stream().filter(r -> r.status() == BatchEntryResult.Status.OK).count();
+        return new BatchResponse(accepted, results.size() - accepted, results);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.MoneyBook.service;
+
+/**
+ * Tells other application instances that a cached entry changed. The default
+ * does nothing, which is correct for a single instance. A multi-instance
+ * deployment can supply its own bean (e.g. over Redis pub/sub or a message
+ * broker) that publishes here and calls {@link UserCache#evictLocal(Long)} or
+ * {@link LedgerVersions#evictLocal(Long)} when another instance announces a change.
+ */
+public interface CacheInvalidationChannel {
+
+    void publish(String cacheName, Object key);
+}
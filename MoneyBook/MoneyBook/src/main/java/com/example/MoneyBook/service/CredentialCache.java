@@ -0,0 +1,120 @@
+package com.example.MoneyBook.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size-bounded, TTL-evicting cache of verified login credentials.
+ * Passwords are never held in clear text: only a salted SHA-256 digest is kept,
+ * and the salt is random per process.
+ *
+ * Each entry records the user's profile version at the time the password was
+ * read. A login racing a password change can cache the old password after the
+ * change invalidated the username, so callers must compare that version with
+ * the user's current one before trusting a hit.
+ */
+@Component
+public class CredentialCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final byte[] salt = new byte[16];
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Access-ordered so the eldest entry is the least recently used one
+    private final LinkedHashMap<String, Entry> entries;
+
+    public CredentialCache(@Value("${auth.credential-cache.max-size:10000}") int maxSize,
+                           @Value("${auth.credential-cache.ttl:PT10M}") Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        new SecureRandom().nextBytes(salt);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > CredentialCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached user id and profile version when the username is cached
+     * and the password matches, or null when the caller has to verify against
+     * the database.
+     */
+    public Verified verify(String username, String password) {
+        Entry entry;
+        lock.lock();
+        try {
+            entry = entries.get(username);
+            if (entry != null && entry.expiresAt - System.nanoTime() < 0) {
+                entries.remove(username);
+                entry = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (entry == null || !MessageDigest.isEqual(entry.digest, digest(password))) {
+            return null;
+        }
+        return new Verified(entry.userId, entry.profileVersion);
+    }
+
+    // Remember credentials that were just verified against the database, with the profile version they were read at
+    public void put(String username, String password, Long userId, long profileVersion) {
+        Entry entry = new Entry(userId, profileVersion, digest(password), System.nanoTime() + ttlNanos);
+        lock.lock();
+        try {
+            entries.put(username, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Drop a username after registration or a password change
+    public void invalidate(String username) {
+        if (username == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            entries.remove(username);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] digest(String password) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(salt);
+            return sha256.digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Verified(Long userId, long profileVersion) {
+    }
+
+    private record Entry(Long userId, long profileVersion, byte[] digest, long expiresAt) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.MoneyBook.service;
+
+import com.example.MoneyBook.model.DailySummary;
+import com.example.MoneyBook.model.Transaction;
+import com.example.MoneyBook.repo.DailySummaryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains {@link DailySummary} rollups.
+ *
+ * Writes happen inside the ledger transaction after the user's balance row has
+ * been updated, so that row lock already serializes summary writes for the same
+ * user and the update-then-insert below cannot race.
+ */
+@Service
+public class DailySummaryService {
+
+    @Autowired
+    private DailySummaryRepository dailySummaryRepository;
+
+    public Changes changes() {
+        return new Changes();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Changes changes) {
+        for (Map.Entry<Key, Delta> entry : changes.deltas.entrySet()) {
+            Key key = entry.getKey();
+            Delta delta = entry.getValue();
+            if (delta.isEmpty()) {
+                continue;
+            }
+            int updated = dailySummaryRepository.accumulate(key.userId, key.day, delta.cashIn, delta.cashOut, delta.count);
+            if (updated == 0) {
+                dailySummaryRepository.save(new DailySummary(key.userId, key.day, delta.cashIn, delta.cashOut, delta.count));
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailySummary> findRange(Long userId, LocalDate from, LocalDate to) {
+        return dailySummaryRepository.findByUserIdAndDayBetweenOrderByDay(userId, from, to);
+    }
+
+    // Backfill rollups when transactions exist but no summaries were kept for them yet
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (dailySummaryRepository.count() > 0) {
+            return;
+        }
+        for (Object[] row : dailySummaryRepository.aggregateTransactions()) {
+            dailySummaryRepository.save(new DailySummary((Long) row[0], (LocalDate) row[1],
+                    (BigDecimal) row[2], (BigDecimal) row[3], (Long) row[4]));
+        }
+    }
+
+    /**
+     * Net rollup changes of one ledger operation, merged per (user, day) so each
+     * rollup row is written at most once.
+     */
+    public static class Changes {
+
+        private final Map<Key, Delta> deltas = new LinkedHashMap<>();
+
+        public Changes add(Transaction transaction) {
+            return merge(transaction.getUserId(), transaction.getTransactionDate().toLocalDate(),
+                    transaction.getCashIn(), transaction.getCashOut(), 1);
+        }
+
+        public Changes remove(Long userId, LocalDate day, BigDecimal cashIn, BigDecimal cashOut) {
+            return merge(userId, day, cashIn.negate(), cashOut.negate(), -1);
+        }
+
+        private Changes merge(Long userId, LocalDate day, BigDecimal cashIn, BigDecimal cashOut, long count) {
+            Delta delta = deltas.computeIfAbsent(new Key(userId, day), k -> new Delta());
+            delta.cashIn = delta.cashIn.add(cashIn);
+            delta.cashOut = delta.cashOut.add(cashOut);
+            delta.count += count;
+            return this;
+        }
+    }
+
+    private record Key(Long userId, LocalDate day) {
+    }
+
+    private static class Delta {
+        BigDecimal cashIn = BigDecimal.ZERO;
+        BigDecimal cashOut = BigDecimal.ZERO;
+        long count;
+
+        boolean isEmpty() {
+            return cashIn.signum() == 0 && cashOut.signum() == 0 && count == 0;
+        }
+    }
+}
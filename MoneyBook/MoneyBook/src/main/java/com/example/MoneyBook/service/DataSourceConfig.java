@@ -0,0 +1,69 @@
+package com.example.MoneyBook.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Primary and replica connection pools behind a {@link ReadRoutingDataSource},
+ * enabled with {@code datasource.replica.enabled=true}. The primary is
+ * configured as usual under {@code spring.datasource}, the replica under
+ * {@code datasource.replica}; each has its own {@code .hikari} pool settings.
+ * Without it Spring Boot's single auto-configured pool is used.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource() {
+        HikariDataSource pool = primaryDataSourceProperties().initializeDataSourceBuilder()
+                .type(HikariDataSource.class).build();
+        pool.setPoolName("primary");
+        return pool;
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource pool = replicaDataSourceProperties().initializeDataSourceBuilder()
+                .type(HikariDataSource.class).build();
+        pool.setPoolName("replica");
+        pool.setReadOnly(true);
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource() {
+        ReadRoutingDataSource routing = new ReadRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                ReadRoutingDataSource.Route.PRIMARY, primaryDataSource(),
+                ReadRoutingDataSource.Route.REPLICA, replicaDataSource()));
+        routing.setDefaultTargetDataSource(primaryDataSource());
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.MoneyBook.service;
+
+import com.example.MoneyBook.dto.TransactionView;
+import com.example.MoneyBook.model.IdempotencyKey;
+import com.example.MoneyBook.model.Transaction;
+import com.example.MoneyBook.repo.IdempotencyKeyRepository;
+import com.example.MoneyBook.repo.TransactionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs deposits and withdrawals at most once per client Idempotency-Key.
+ *
+ * Recent keys map to the future of their response in a bounded, TTL-evicting
+ * in-memory cache: a replay is answered from memory, and a duplicate that
+ * arrives while the first request is still running waits for that execution
+ * instead of starting its own. Failed executions are forgotten so the client
+ * can retry them.
+ *
+ * The ledger transaction also inserts the key into {@code idempotency_keys},
+ * whose unique (user, key) constraint catches duplicates this cache does not
+ * know about (evicted, restarted, or handled by another instance). Such a
+ * duplicate rolls back and is answered with the transaction already stored.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 64;
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    /**
+     * Response to an idempotent request; replayed is true when it was not
+     * executed again.
+     */
+    public record Outcome(TransactionView view, boolean replayed) {
+    }
+
+    private record Scope(Long userId, String key) {
+    }
+
+    private record Response(String fingerprint, TransactionView view) {
+    }
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerMetrics ledgerMetrics;
+
+    private final Cache<Scope, CompletableFuture<Response>> responses;
+    private final Duration retention;
+
+    public IdempotencyService(@Value("${idempotency.cache.max-size:100000}") long maxSize,
+                              @Value("${idempotency.cache.ttl:PT24H}") Duration ttl,
+                              @Value("${idempotency.retention:P7D}") Duration retention) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.retention = retention;
+    }
+
+    /**
+     * Runs the operation unless the user already used this key, in which case
+     * the original response is returned. A key reused with different
+     * parameters is rejected.
+     */
+    public Outcome execute(Long userId, String key, String operation, BigDecimal amount, String notes,
+                           Supplier<Transaction> action) {
+        requireValid(key);
+        String fingerprint = fingerprint(operation, amount, notes);
+        Scope scope = new Scope(userId, key);
+        CompletableFuture<Response> pending = new CompletableFuture<>();
+        CompletableFuture<Response> existing = responses.asMap().putIfAbsent(scope, pending);
+        if (existing != null) {
+            Response response = await(existing);
+            ledgerMetrics.replayed(operation, "memory");
+            return replay(response, fingerprint);
+        }
+
+        Response response;
+        boolean executed = true;
+        try {
+            try {
+                response = new Response(fingerprint, TransactionView.from(action.get()));
+            } catch (DataIntegrityViolationException e) {
+                // The key is already stored, so an earlier request committed it
+                response = load(userId, key).orElseThrow(() -> e);
+                executed = false;
+            }
+        } catch (RuntimeException e) {
+            responses.asMap().remove(scope, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+        pending.complete(response);
+        if (executed) {
+            return new Outcome(response.view(), false);
+        }
+        log.atDebug().addKeyValue("userId", userId).addKeyValue("operation", operation)
+                .log("Idempotent request replayed from database");
+        ledgerMetrics.replayed(operation, "database");
+        return replay(response, fingerprint);
+    }
+
+    // Records the key in the ledger transaction that created the transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void claim(Long userId, String key, String operation, BigDecimal amount, String notes, Long transactionId) {
+        idempotencyKeyRepository.saveAndFlush(
+                new IdempotencyKey(userId, key, fingerprint(operation, amount, notes), transactionId));
+    }
+
+    // Stored keys only need to outlive client retries; the in-memory TTL should be shorter
+    @Scheduled(cron = "${idempotency.cleanup-cron:0 30 * * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        if (removed > 0) {
+            log.atDebug().addKeyValue("removed", removed).log("Expired idempotency keys purged");
+        }
+    }
+
+    // Drops the in-memory responses, leaving only the database to catch duplicates
+    void forgetAll() {
+        responses.invalidateAll();
+    }
+
+    private Optional<Response> load(Long userId, String key) {
+        return idempotencyKeyRepository.findByUserIdAndKey(userId, key).map(stored -> {
+            List<TransactionView> views = transactionRepository.findViewsByIdIn(List.of(stored.getTransactionId()));
+            if (views.isEmpty()) {
+                throw LedgerException.transactionNotFound();
+            }
+            return new Response(stored.getFingerprint(), views.get(0));
+        });
+    }
+
+    private static Outcome replay(Response response, String fingerprint) {
+        if (!response.fingerprint().equals(fingerprint)) {
+            throw new LedgerException(LedgerException.Reason.IDEMPOTENCY_KEY_REUSED,
+                    "Idempotency-Key was already used for a different request");
+        }
+        return new Outcome(response.view(), true);
+    }
+
+    private static Response await(CompletableFuture<Response> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void requireValid(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new LedgerException(LedgerException.Reason.INVALID_IDEMPOTENCY_KEY,
+                    "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    static String fingerprint(String operation, BigDecimal amount, String notes) {
+        String request = operation + '\n'
+                + (amount == null ? "" : amount.stripTrailingZeros().toPlainString()) + '\n'
+                + (notes == null ? "" : notes);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(request.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.MoneyBook.service;
+
+import com.example.MoneyBook.dto.TransactionView;
+
+import java.util.List;
+
+/**
+ * Published by {@link LedgerService} inside the ledger DB transaction whenever a
+ * user's balance or transactions change. Listeners that act on it outside the
+ * database use {@code @TransactionalEventListener} so they only see committed changes.
+ *
+ * @param changed transactions created or updated, as committed
+ * @param deleted ids of transactions deleted
+ */
+public record LedgerChangedEvent(Long userId, List<TransactionView> changed, List<Long> deleted) {
+
+    public static LedgerChangedEvent changed(Long userId, TransactionView transaction) {
+        return new LedgerChangedEvent(userId, List.of(transaction), List.of());
+    }
+
+    public List<Long> changedIds() {
+        return changed.stream().map(TransactionView::id).toList();
+    }
+
+    public static LedgerChangedEvent deleted(Long userId, Long transactionId) {
+        return new LedgerChangedEvent(userId, List.of(), List.of(transactionId));
+    }
+
+    // Only the balance moved, e.g. a manual adjustment
+    public static LedgerChangedEvent balanceOnly(Long userId) {
+        return new LedgerChangedEvent(userId, List.of(), List.of());
+    }
+}
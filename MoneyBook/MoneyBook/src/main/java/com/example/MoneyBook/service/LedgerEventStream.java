@@ -0,0 +1,255 @@
+package com.example.MoneyBook.service;
+
+import com.example.MoneyBook.dto.LedgerUpdate;
+import com.example.MoneyBook.model.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed ledger changes to clients over server-sent events, one
+ * stream per connection, subscribed per user.
+ *
+ * Changes are coalesced per connection: the first change schedules a send
+ * {@code ledger.stream.coalesce-window} later, and anything arriving before
+ * that send, or while it is still being written, is folded into the next one.
+ * A slow client therefore receives fewer, larger updates rather than a growing
+ * backlog, and at most one send per connection is ever queued or in flight.
+ * When more ids pile up than {@code ledger.stream.max-ids}, they are dropped
+ * and the update asks the client to resync instead.
+ */
+@Service
+public class LedgerEventStream implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerEventStream.class);
+
+    @Autowired
+    private UserCache userCache;
+
+    @Value("${ledger.stream.coalesce-window:PT0.25S}")
+    private Duration coalesceWindow;
+
+    @Value("${ledger.stream.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${ledger.stream.max-ids:100}")
+    private int maxIds;
+
+    @Value("${ledger.stream.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    private final ConcurrentHashMap<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final ScheduledThreadPoolExecutor sender;
+
+    public LedgerEventStream(@Value("${ledger.stream.sender-threads:2}") int senderThreads,
+                             @Value("${ledger.stream.heartbeat:PT25S}") Duration heartbeat,
+                             MeterRegistry registry) {
+        AtomicInteger count = new AtomicInteger();
+        this.sender = new ScheduledThreadPoolExecutor(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ledger-stream-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        sender.setRemoveOnCancelPolicy(true);
+        // Comments keep proxies from closing idle streams and reveal dead connections
+        sender.scheduleWithFixedDelay(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        Gauge.builder("ledger.stream.connections", open, AtomicInteger::get)
+                .description("Open ledger event streams")
+                .register(registry);
+    }
+
+    /**
+     * Opens a stream for the user, starting with an update carrying the current
+     * balance. Returns null when the user already has the maximum number of streams.
+     */
+    public SseEmitter subscribe(Long userId) {
+        Connection connection = new Connection(userId, new SseEmitter(timeout.toMillis()));
+        boolean[] added = new boolean[1];
+        // Per-key atomic, so a concurrent close cannot drop the set this connection joins
+        connections.compute(userId, (id, set) -> {
+            Set<Connection> userConnections = set != null ? set : new CopyOnWriteArraySet<>();
+            if (userConnections.size() < maxConnectionsPerUser) {
+                added[0] = userConnections.add(connection);
+            }
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+        if (!added[0]) {
+            return null;
+        }
+        open.incrementAndGet();
+        connection.emitter.onCompletion(connection::close);
+        connection.emitter.onTimeout(connection::close);
+        connection.emitter.onError(e -> connection.close());
+        connection.offer(List.of(), List.of());
+        return connection.emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLedgerChanged(LedgerChangedEvent event) {
+        Set<Connection> userConnections = connections.get(event.userId());
+        if (userConnections == null) {
+            return;
+        }
+        for (Connection connection : userConnections) {
+            connection.offer(event.changedIds(), event.deleted());
+        }
+    }
+
+    private void heartbeat() {
+        for (Set<Connection> userConnections : connections.values()) {
+            for (Connection connection : userConnections) {
+                connection.ping();
+            }
+        }
+    }
+
+    // Ends open streams before graceful shutdown starts waiting for in-flight requests
+    @EventListener(ContextClosedEvent.class)
+    public void closeAll() {
+        connections.values().forEach(set -> set.forEach(Connection::close));
+    }
+
+    @Override
+    public void destroy() {
+        sender.shutdownNow();
+    }
+
+    private final class Connection {
+
+        final Long userId;
+        final SseEmitter emitter;
+
+        // Guarded by this
+        private Set<Long> changed = new LinkedHashSet<>();
+        private Set<Long> deleted = new LinkedHashSet<>();
+        private boolean resync;
+        private boolean dirty;
+        private boolean scheduled;
+        private boolean closed;
+
+        Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        synchronized void offer(List<Long> changedIds, List<Long> deletedIds) {
+            if (closed) {
+                return;
+            }
+            dirty = true;
+            if (!resync) {
+                changed.addAll(changedIds);
+                deletedIds.forEach(changed::remove);
+                deleted.addAll(deletedIds);
+                if (changed.size() + deleted.size() > maxIds) {
+                    resync = true;
+                    changed.clear();
+                    deleted.clear();
+                }
+            }
+            if (!scheduled) {
+                scheduled = true;
+                sender.schedule(this::flush, coalesceWindow.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void flush() {
+            List<Long> changedIds;
+            List<Long> deletedIds;
+            boolean resyncNeeded;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                changedIds = List.copyOf(changed);
+                deletedIds = List.copyOf(deleted);
+                resyncNeeded = resync;
+                changed = new LinkedHashSet<>();
+                deleted = new LinkedHashSet<>();
+                resync = false;
+                dirty = false;
+            }
+            try {
+                User user = userCache.find(userId);
+                LedgerUpdate update = new LedgerUpdate(userId, user != null ? user.getBalance() : null,
+                        changedIds, deletedIds, resyncNeeded);
+                // Written outside the lock; offers meanwhile accumulate for the next send
+                emitter.send(SseEmitter.event().name("ledger").data(update, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                log.atDebug().addKeyValue("userId", userId).setCause(e).log("Ledger stream closed while sending");
+                close();
+                return;
+            } catch (RuntimeException e) {
+                log.atWarn().addKeyValue("userId", userId).setCause(e).log("Ledger stream update failed");
+            }
+            synchronized (this) {
+                if (dirty && !closed) {
+                    sender.schedule(this::flush, coalesceWindow.toMillis(), TimeUnit.MILLISECONDS);
+                } else {
+                    scheduled = false;
+                }
+            }
+        }
+
+        void ping() {
+            synchronized (this) {
+                // A pending send proves liveness just as well
+                if (closed || scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            try {
+                emitter.send(SseEmitter.event().comment("ping"));
+            } catch (IOException | IllegalStateException e) {
+                close();
+                return;
+            }
+            synchronized (this) {
+                if (dirty && !closed) {
+                    sender.schedule(this::flush, coalesceWindow.toMillis(), TimeUnit.MILLISECONDS);
+                } else {
+                    scheduled = false;
+                }
+            }
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            }
+            connections.computeIfPresent(userId, (id, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+            open.decrementAndGet();
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.MoneyBook.service;
+
+/**
+ * Raised by {@link LedgerService} when a balance operation cannot be applied.
+ */
+public class LedgerException extends RuntimeException {
+
+    public enum Reason {
+        USER_NOT_FOUND, TRANSACTION_NOT_FOUND, INSUFFICIENT_FUNDS, INVALID_AMOUNT,
+        INVALID_IDEMPOTENCY_KEY, IDEMPOTENCY_KEY_REUSED, INVALID_TRANSFER
+    }
+
+    private final Reason reason;
+
+    public LedgerException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public static LedgerException userNotFound() {
+        return new LedgerException(Reason.USER_NOT_FOUND, "User not found");
+    }
+
+    public static LedgerException transactionNotFound() {
+        return new LedgerException(Reason.TRANSACTION_NOT_FOUND, "Transaction not found");
+    }
+
+    public static LedgerException insufficientFunds() {
+        return new LedgerException(Reason.INSUFFICIENT_FUNDS, "Insufficient funds");
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.MoneyBook.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Writes a user's full ledger straight from a JDBC cursor to an output stream.
+ * Rows are fetched in batches of {@code export.fetch-size} and written one at a
+ * time, so memory use does not depend on the size of the history.
+ *
+ * With partitioning enabled, archived months are read from
+ * {@code transactions_archive} first; they are all older than the live rows,
+ * so the two ordered reads together are in date order.
+ */
+@Service
+public class LedgerExportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final String QUERY = "select id, cash_in, cash_out, transaction_date, type, notes "
+            + "from transactions where user_id = ? order by transaction_date, id";
+
+    private static final String ARCHIVE_QUERY = "select id, cash_in, cash_out, transaction_date, type, notes "
+            + "from transactions_archive where user_id = ? order by transaction_date, id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final List<String> queries;
+
+    public LedgerExportService(DataSource dataSource, ObjectMapper objectMapper,
+                               @Value("${export.fetch-size:1000}") int fetchSize,
+                               @Value("${storage.partitioning.enabled:false}") boolean includeArchive) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+        this.queries = includeArchive ? List.of(ARCHIVE_QUERY, QUERY) : List.of(QUERY);
+    }
+
+    public void export(Long userId, Format format, OutputStream out) throws IOException {
+        try {
+            if (format == Format.CSV) {
+                writeCsv(userId, out);
+            } else {
+                writeNdjson(userId, out);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeCsv(Long userId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,type,cashIn,cashOut,transactionDate,notes\n");
+        for (String query : queries) {
+            jdbcTemplate.query(query, rs -> {
+                try {
+                    writer.write(Long.toString(rs.getLong("id")));
+                    writer.write(',');
+                    writer.write(rs.getString("type"));
+                    writer.write(',');
+                    writer.write(rs.getBigDecimal("cash_in").toPlainString());
+                    writer.write(',');
+                    writer.write(rs.getBigDecimal("cash_out").toPlainString());
+                    writer.write(',');
+                    writer.write(rs.getTimestamp("transaction_date").toLocalDateTime().toString());
+                    writer.write(',');
+                    writeCsvField(writer, rs.getString("notes"));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, userId);
+        }
+        writer.flush();
+    }
+
+    private void writeNdjson(Long userId, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        for (String query : queries) {
+            jdbcTemplate.query(query, rs -> {
+                try {
+                    writeJsonRow(generator, userId, rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, userId);
+        }
+        generator.close();
+    }
+
+    private static void writeJsonRow(JsonGenerator generator, Long userId, ResultSet rs) throws IOException, SQLException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", rs.getLong("id"));
+        generator.writeNumberField("userId", userId);
+        generator.writeStringField("type", rs.getString("type"));
+        writeAmount(generator, "cashIn", rs.getBigDecimal("cash_in"));
+        writeAmount(generator, "cashOut", rs.getBigDecimal("cash_out"));
+        Timestamp date = rs.getTimestamp("transaction_date");
+        generator.writeStringField("transactionDate", date.toLocalDateTime().toString());
+        generator.writeStringField("notes", rs.getString("notes"));
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static void writeAmount(JsonGenerator generator, String field, BigDecimal amount) throws IOException {
+        generator.writeFieldName(field);
+        generator.writeNumber(amount);
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.MoneyBook.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ledger-specific meters. Request latency, repository calls and Hikari pool
+ * usage are recorded by Spring Boot's own instrumentation; these cover what
+ * happens inside a ledger operation:
+ * <ul>
+ *   <li>{@code ledger.commit} - time spent flushing and committing, which is
+ *       where the transaction INSERT and any pending UPDATEs actually run</li>
+ *   <li>{@code ledger.rejections} - operations refused by the ledger, by reason</li>
+ *   <li>{@code ledger.idempotent.replays} - duplicate requests answered with
+ *       the original response, from memory or from the database</li>
+ *   <li>{@code ledger.admission.rejections} - writes shed by admission control,
+ *       by the limit they hit ({@code global} or {@code user})</li>
+ * </ul>
+ */
+@Component
+public class LedgerMetrics {
+
+    private final MeterRegistry registry;
+
+    public LedgerMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void rejected(String operation, LedgerException.Reason reason) {
+        Counter.builder("ledger.rejections")
+                .description("Ledger operations refused, e.g. for insufficient funds")
+                .tag("operation", operation)
+                .tag("reason", reason.name().toLowerCase())
+                .register(registry)
+                .increment();
+    }
+
+    public void replayed(String operation, String source) {
+        Counter.builder("ledger.idempotent.replays")
+                .description("Requests with an already used Idempotency-Key that were not executed again")
+                .tag("operation", operation)
+                .tag("source", source)
+                .register(registry)
+                .increment();
+    }
+
+    public void shed(String operation, String limit) {
+        Counter.builder("ledger.admission.rejections")
+                .description("Writes refused with 429 before reaching the ledger")
+                .tag("operation", operation)
+                .tag("limit", limit)
+                .register(registry)
+                .increment();
+    }
+
+    // Time the flush and commit of the current DB transaction
+    public void timeCommit(String operation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Timer timer = Timer.builder("ledger.commit")
+                .description("Flush and commit time of ledger transactions")
+                .tag("operation", operation)
+                .register(registry);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long start;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                start = System.nanoTime();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (start != 0 && status == STATUS_COMMITTED) {
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.MoneyBook.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.MoneyBook.dto.BatchEntry;
+import com.example.MoneyBook.dto.BatchEntryResult;
+import com.example.MoneyBook.dto.TransactionView;
+import com.example.MoneyBook.dto.TransferResponse;
+import com.example.MoneyBook.model.LedgerEntry;
+import com.example.MoneyBook.model.Transaction;
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.TransactionRepository;
+import com.example.MoneyBook.repo.UserRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Applies cash movements to user balances. How a balance change is persisted
+ * is up to the configured {@link BalanceStore}: an in-place atomic update, or
+ * an appended ledger entry.
+ */
+@Service
+public class LedgerService {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BalanceStore balanceStore;
+
+    @Autowired
+    private DailySummaryService dailySummaryService;
+
+    @Autowired
+    private LedgerMetrics ledgerMetrics;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AttachmentService attachmentService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Transactional
+    public Transaction deposit(Long userId, BigDecimal amount, String notes) {
+        return deposit(userId, amount, notes, null);
+    }
+
+    // A non-null idempotency key is stored with the transaction; reusing it fails the whole deposit
+    @Transactional
+    public Transaction deposit(Long userId, BigDecimal amount, String notes, String idempotencyKey) {
+        ledgerMetrics.timeCommit("deposit");
+        requirePositive(amount);
+        Transaction saved = balanceStore.post(userId, amount, false, LedgerEntry.Kind.CASHIN,
+                user -> record(user, amount, BigDecimal.ZERO, Transaction.TransactionType.CASHIN, notes));
+        if (idempotencyKey != null) {
+            idempotencyService.claim(userId, idempotencyKey, "deposit", amount, notes, saved.getId());
+        }
+        eventPublisher.publishEvent(LedgerChangedEvent.changed(userId, TransactionView.from(saved)));
+        return saved;
+    }
+
+    @Transactional
+    public Transaction withdraw(Long userId, BigDecimal amount, String notes) {
+        return withdraw(userId, amount, notes, null);
+    }
+
+    @Transactional
+    public Transaction withdraw(Long userId, BigDecimal amount, String notes, String idempotencyKey) {
+        ledgerMetrics.timeCommit("withdraw");
+        requirePositive(amount);
+        Transaction saved = balanceStore.post(userId, amount.negate(), true, LedgerEntry.Kind.CASHOUT,
+                user -> record(user, BigDecimal.ZERO, amount, Transaction.TransactionType.CASHOUT, notes));
+        if (idempotencyKey != null) {
+            idempotencyService.claim(userId, idempotencyKey, "withdraw", amount, notes, saved.getId());
+        }
+        eventPublisher.publishEvent(LedgerChangedEvent.changed(userId, TransactionView.from(saved)));
+        return saved;
+    }
+
+    /**
+     * Moves amount from one user to another in one DB transaction, recorded as
+     * two TRANSFER rows that point at each other. Both users are locked through
+     * {@link BalanceStore#lockAll}, in ascending id order whichever way the money
+     * moves, so opposite transfers between the same users cannot deadlock.
+     */
+    @Transactional
+    public TransferResponse transfer(Long fromUserId, Long toUserId, BigDecimal amount, String notes) {
+        ledgerMetrics.timeCommit("transfer");
+        requirePositive(amount);
+        if (fromUserId == null || toUserId == null || fromUserId.equals(toUserId)) {
+            throw new LedgerException(LedgerException.Reason.INVALID_TRANSFER,
+                    "A transfer needs two different users");
+        }
+        Map<Long, BigDecimal> balances = balanceStore.lockAll(List.of(fromUserId, toUserId));
+        if (balances.size() < 2) {
+            throw LedgerException.userNotFound();
+        }
+        if (balances.get(fromUserId).compareTo(amount) < 0) {
+            throw LedgerException.insufficientFunds();
+        }
+
+        Transaction debit = new Transaction(userRepository.getReferenceById(fromUserId),
+                BigDecimal.ZERO, amount, Transaction.TransactionType.TRANSFER);
+        Transaction credit = new Transaction(userRepository.getReferenceById(toUserId),
+                amount, BigDecimal.ZERO, Transaction.TransactionType.TRANSFER);
+        credit.setTransactionDate(debit.getTransactionDate());
+        debit.setNotes(notes);
+        credit.setNotes(notes);
+        transactionRepository.saveAll(List.of(debit, credit));
+        debit.setLinkedTransactionId(credit.getId());
+        credit.setLinkedTransactionId(debit.getId());
+
+        balanceStore.postAll(Map.of(fromUserId, amount.negate(), toUserId, amount), List.of(debit, credit));
+        dailySummaryService.apply(dailySummaryService.changes().add(debit).add(credit));
+        TransferResponse response = new TransferResponse(TransactionView.from(debit), TransactionView.from(credit));
+        eventPublisher.publishEvent(LedgerChangedEvent.changed(fromUserId, response.debit()));
+        eventPublisher.publishEvent(LedgerChangedEvent.changed(toUserId, response.credit()));
+        return response;
+    }
+
+    @Transactional
+    public Transaction updateTransaction(Long transactionId, BigDecimal cashIn, BigDecimal cashOut, String notes) {
+        ledgerMetrics.timeCommit("update");
+        if (cashIn == null || cashOut == null || cashIn.signum() < 0 || cashOut.signum() < 0) {
+            throw new LedgerException(LedgerException.Reason.INVALID_AMOUNT, "Amount must not be negative");
+        }
+        Transaction existing = transactionRepository.findByIdForUpdate(transactionId)
+                .orElseThrow(LedgerException::transactionNotFound);
+        requireNotTransfer(existing);
+        Long userId = existing.getUserId();
+        BigDecimal delta = cashIn.subtract(cashOut).subtract(signedAmount(existing));
+        DailySummaryService.Changes changes = dailySummaryService.changes()
+                .remove(userId, existing.getTransactionDate().toLocalDate(), existing.getCashIn(), existing.getCashOut());
+
+        Transaction updated = balanceStore.post(userId, delta, false, LedgerEntry.Kind.CORRECTION, user -> {
+            existing.setCashIn(cashIn);
+            existing.setCashOut(cashOut);
+            existing.setNotes(notes);
+            return transactionRepository.save(existing);
+        });
+        dailySummaryService.apply(changes.add(updated));
+        eventPublisher.publishEvent(LedgerChangedEvent.changed(userId, TransactionView.from(updated)));
+        return updated;
+    }
+
+    @Transactional
+    public void deleteTransaction(Long transactionId) {
+        ledgerMetrics.timeCommit("delete");
+        Transaction existing = transactionRepository.findByIdForUpdate(transactionId)
+                .orElseThrow(LedgerException::transactionNotFound);
+        requireNotTransfer(existing);
+        Long userId = existing.getUserId();
+        DailySummaryService.Changes changes = dailySummaryService.changes()
+                .remove(userId, existing.getTransactionDate().toLocalDate(), existing.getCashIn(), existing.getCashOut());
+
+        balanceStore.post(userId, signedAmount(existing).negate(), false, LedgerEntry.Kind.REVERSAL, user -> {
+            transactionRepository.delete(existing);
+            return existing;
+        });
+        attachmentService.deleteForTransaction(transactionId);
+        dailySummaryService.apply(changes);
+        eventPublisher.publishEvent(LedgerChangedEvent.deleted(userId, transactionId));
+    }
+
+    // Sets a balance directly, e.g. a manual correction by an operator
+    @Transactional
+    public User adjustBalance(Long userId, BigDecimal balance) {
+        ledgerMetrics.timeCommit("adjust");
+        if (balance == null) {
+            throw new LedgerException(LedgerException.Reason.INVALID_AMOUNT, "Balance is required");
+        }
+        User user = balanceStore.setBalance(userId, balance);
+        eventPublisher.publishEvent(LedgerChangedEvent.balanceOnly(userId));
+        return user;
+    }
+
+    // Current balance as the configured store sees it
+    @Transactional(readOnly = true)
+    public BigDecimal balanceOf(Long userId) {
+        return balanceStore.balanceOf(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public long versionOf(Long userId) {
+        return balanceStore.versionOf(userId);
+    }
+
+    // The user with its current balance, ready to be returned to a client
+    @Transactional(readOnly = true)
+    public User withCurrentBalance(User user) {
+        return balanceStore.withCurrentBalance(user);
+    }
+
+    /**
+     * Applies one chunk of a bulk import in a single DB transaction. Entries are
+     * checked in order against a running balance per user, accepted rows are
+     * batch-inserted, and each user's balance is moved once by the summed delta.
+     *
+     * @param offset index of the first entry within the whole import
+     */
+    @Transactional
+    public List<BatchEntryResult> applyBatch(List<BatchEntry> entries, int offset) {
+        ledgerMetrics.timeCommit("batch");
+        TreeSet<Long> userIds = new TreeSet<>();
+        for (BatchEntry entry : entries) {
+            if (entry.userId() != null) {
+                userIds.add(entry.userId());
+            }
+        }
+        Map<Long, BigDecimal> opening = balanceStore.lockAll(userIds);
+        Map<Long, BigDecimal> running = new HashMap<>(opening);
+
+        BatchEntryResult[] results = new BatchEntryResult[entries.size()];
+        List<Transaction> accepted = new ArrayList<>();
+        List<Integer> acceptedSlots = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            BatchEntry entry = entries.get(i);
+            int index = offset + i;
+            if (entry.userId() == null || entry.type() == null) {
+                results[i] = BatchEntryResult.rejected(index, "userId and type are required");
+                continue;
+            }
+            if (entry.type() == Transaction.TransactionType.TRANSFER) {
+                results[i] = BatchEntryResult.rejected(index, "type must be CASHIN or CASHOUT");
+                continue;
+            }
+            if (entry.amount() == null || entry.amount().signum() <= 0) {
+                results[i] = BatchEntryResult.rejected(index, "Amount must be positive");
+                continue;
+            }
+            BigDecimal balance = running.get(entry.userId());
+            if (balance == null) {
+                results[i] = BatchEntryResult.rejected(index, "User not found");
+                continue;
+            }
+            boolean cashIn = entry.type() == Transaction.TransactionType.CASHIN;
+            BigDecimal next = cashIn ? balance.add(entry.amount()) : balance.subtract(entry.amount());
+            if (next.signum() < 0) {
+                ledgerMetrics.rejected("batch", LedgerException.Reason.INSUFFICIENT_FUNDS);
+                results[i] = BatchEntryResult.rejected(index, "Insufficient funds");
+                continue;
+            }
+            running.put(entry.userId(), next);
+
+            Transaction transaction = new Transaction(userRepository.getReferenceById(entry.userId()),
+                    cashIn ? entry.amount() : BigDecimal.ZERO,
+                    cashIn ? BigDecimal.ZERO : entry.amount(),
+                    entry.type());
+            transaction.setNotes(entry.notes());
+            if (entry.transactionDate() != null) {
+                transaction.setTransactionDate(entry.transactionDate());
+            }
+            accepted.add(transaction);
+            acceptedSlots.add(i);
+        }
+
+        transactionRepository.saveAll(accepted);
+        DailySummaryService.Changes changes = dailySummaryService.changes();
+        for (int j = 0; j < accepted.size(); j++) {
+            int slot = acceptedSlots.get(j);
+            results[slot] = BatchEntryResult.ok(offset + slot, accepted.get(j).getId());
+            changes.add(accepted.get(j));
+        }
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        Map<Long, List<TransactionView>> changedByUser = new HashMap<>();
+        for (Transaction transaction : accepted) {
+            changedByUser.computeIfAbsent(transaction.getUserId(), id -> new ArrayList<>()).add(TransactionView.from(transaction));
+        }
+        // Only users with an accepted entry changed
+        changedByUser.keySet().forEach(userId -> deltas.put(userId, running.get(userId).subtract(opening.get(userId))));
+        balanceStore.postAll(deltas, accepted);
+        dailySummaryService.apply(changes);
+        changedByUser.forEach((userId, views) ->
+                eventPublisher.publishEvent(new LedgerChangedEvent(userId, views, List.of())));
+        return List.of(results);
+    }
+
+    private Transaction record(User user, BigDecimal cashIn, BigDecimal cashOut,
+                               Transaction.TransactionType type, String notes) {
+        Transaction transaction = new Transaction(user, cashIn, cashOut, type);
+        transaction.setNotes(notes);
+        Transaction saved = transactionRepository.save(transaction);
+        dailySummaryService.apply(dailySummaryService.changes().add(saved));
+        return saved;
+    }
+
+    // Effect of a transaction on the balance
+    static BigDecimal signedAmount(Transaction transaction) {
+        return transaction.getCashIn().subtract(transaction.getCashOut());
+    }
+
+    // Changing one leg alone would break the transfer; a reverse transfer undoes it instead
+    private static void requireNotTransfer(Transaction transaction) {
+        if (transaction.getType() == Transaction.TransactionType.TRANSFER) {
+            throw new LedgerException(LedgerException.Reason.INVALID_TRANSFER,
+                    "Transfer transactions cannot be changed");
+        }
+    }
+
+    private static void requirePositive(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new LedgerException(LedgerException.Reason.INVALID_AMOUNT, "Amount must be positive");
+        }
+    }
+}
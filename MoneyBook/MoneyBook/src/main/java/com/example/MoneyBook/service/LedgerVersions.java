@@ -0,0 +1,72 @@
+package com.example.MoneyBook.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Per-user ledger versions, used as strong ETags so an unchanged history or
+ * user can be answered with 304 before any query runs.
+ *
+ * The version comes from {@link BalanceStore#versionOf(Long)} and is cached in
+ * memory until a change to the user commits. Eviction waits for a load of the
+ * same user that is still running, so a version read just before a commit
+ * cannot outlive it.
+ */
+@Service
+public class LedgerVersions {
+
+    public static final String VERSIONS = "ledgerVersions";
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private CacheInvalidationChannel invalidationChannel;
+
+    private final Cache<Long, Long> versions;
+
+    public LedgerVersions(@Value("${ledger.versions.max-size:100000}") long maxSize,
+                          @Value("${ledger.versions.ttl:PT60S}") Duration ttl) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // Loaded from the primary, like UserCache, so a lagging replica cannot cache an old version
+    public long current(Long userId) {
+        return versions.get(userId, id -> ReadRoutingDataSource.onPrimary(() -> ledgerService.versionOf(id)));
+    }
+
+    // Strong ETag of everything derived from the user's ledger
+    public String etag(Long userId) {
+        return "\"u" + userId + "-v" + current(userId) + "\"";
+    }
+
+    // ETag for a representation that also depends on the user's profile, e.g. the user itself
+    public static String etag(Long userId, long version, long profileVersion) {
+        return "\"u" + userId + "-v" + version + "-p" + profileVersion + "\"";
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLedgerChanged(LedgerChangedEvent event) {
+        evict(event.userId());
+    }
+
+    public void evict(Long userId) {
+        evictLocal(userId);
+        invalidationChannel.publish(VERSIONS, userId);
+    }
+
+    // Drops the entry on this instance only, e.g. on a message from another instance
+    public void evictLocal(Long userId) {
+        versions.invalidate(userId);
+    }
+}
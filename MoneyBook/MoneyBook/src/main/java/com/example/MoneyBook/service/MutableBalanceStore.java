@@ -0,0 +1,88 @@
+package com.example.MoneyBook.service;
+
+import com.example.MoneyBook.model.LedgerEntry;
+import com.example.MoneyBook.model.Transaction;
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Balances kept in {@code users.balance}. Every change is a single
+ * {@code UPDATE users SET balance = balance + ?} (conditional on funds for
+ * withdrawals), so concurrent posts cannot lose updates and only contend on the
+ * row of the user they touch. The same statement bumps {@code users.ledger_version}.
+ */
+@Component
+@ConditionalOnProperty(name = "ledger.mode", havingValue = "mutable", matchIfMissing = true)
+public class MutableBalanceStore implements BalanceStore {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Override
+    public Transaction post(Long userId, BigDecimal delta, boolean requireFunds, LedgerEntry.Kind kind,
+                            Function<User, Transaction> write) {
+        int updated = requireFunds
+                ? userRepository.addToBalanceIfSufficient(userId, delta)
+                : userRepository.addToBalance(userId, delta);
+        if (updated == 0) {
+            if (!userRepository.existsById(userId)) {
+                throw LedgerException.userNotFound();
+            }
+            throw LedgerException.insufficientFunds();
+        }
+        // The row exists (it was just updated), so a reference is enough to link the transaction
+        return write.apply(userRepository.getReferenceById(userId));
+    }
+
+    @Override
+    public User setBalance(Long userId, BigDecimal balance) {
+        User user = userRepository.findByIdForUpdate(userId).orElseThrow(LedgerException::userNotFound);
+        user.setBalance(balance);
+        user.setLedgerVersion(user.getLedgerVersion() + 1);
+        return user;
+    }
+
+    @Override
+    public Map<Long, BigDecimal> lockAll(Collection<Long> userIds) {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            for (User user : userRepository.findAllByIdForUpdate(userIds)) {
+                balances.put(user.getId(), user.getBalance());
+            }
+        }
+        return balances;
+    }
+
+    @Override
+    public void postAll(Map<Long, BigDecimal> deltas, List<Transaction> transactions) {
+        // One balance update per user, even a net-zero one so its version moves; also flushes the batched inserts first
+        for (Map.Entry<Long, BigDecimal> delta : deltas.entrySet()) {
+            userRepository.addToBalance(delta.getKey(), delta.getValue());
+        }
+    }
+
+    @Override
+    public BigDecimal balanceOf(Long userId) {
+        return userRepository.findById(userId).map(User::getBalance).orElseThrow(LedgerException::userNotFound);
+    }
+
+    @Override
+    public long versionOf(Long userId) {
+        return userRepository.findLedgerVersion(userId).orElse(0L);
+    }
+
+    @Override
+    public User withCurrentBalance(User user) {
+        return user;
+    }
+}
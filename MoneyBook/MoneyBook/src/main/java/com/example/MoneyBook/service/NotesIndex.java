@@ -0,0 +1,261 @@
+package com.example.MoneyBook.service;
+
+import com.example.MoneyBook.dto.TransactionView;
+import com.example.MoneyBook.model.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over transaction notes, one per user.
+ *
+ * Notes are split into lower-cased letter/digit terms; each term maps to a
+ * sorted {@link PostingList} of transaction ids. Terms sit in a TreeMap so a
+ * query term matches every indexed term it is a prefix of; the postings of
+ * all query terms are intersected. Date and type filters are applied to the
+ * matches from per-transaction metadata, so the database is only asked for
+ * the final page of rows.
+ *
+ * Kept current from committed {@link LedgerChangedEvent}s and rebuilt from the
+ * database at startup. Requests are already served while the rebuild streams
+ * its snapshot, so events arriving meanwhile are held back and replayed over
+ * it; otherwise a row read before an edit or delete would overwrite the change.
+ */
+@Service
+public class NotesIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(NotesIndex.class);
+
+    private static final String REBUILD_QUERY = "select id, user_id, transaction_date, type, notes "
+            + "from transactions where notes is not null and notes <> ''";
+
+    private final ConcurrentHashMap<Long, UserIndex> users = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+
+    // Events received during a rebuild, or null when none is running
+    private final Object bufferLock = new Object();
+    private List<LedgerChangedEvent> buffered;
+
+    public NotesIndex(DataSource dataSource, @Value("${export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        int[] rows = new int[1];
+        // Buffering starts before the query, so every event it does not reflect is replayed
+        synchronized (bufferLock) {
+            buffered = new ArrayList<>();
+        }
+        try {
+            jdbcTemplate.query(REBUILD_QUERY, rs -> {
+                index(rs.getLong("user_id"), rs.getLong("id"), rs.getTimestamp("transaction_date").toLocalDateTime(),
+                        Transaction.TransactionType.valueOf(rs.getString("type")), rs.getString("notes"));
+                rows[0]++;
+            });
+        } finally {
+            replayBuffered();
+        }
+        log.atInfo().addKeyValue("transactions", rows[0]).addKeyValue("users", users.size())
+                .addKeyValue("millis", (System.nanoTime() - start) / 1_000_000).log("Notes index built");
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLedgerChanged(LedgerChangedEvent event) {
+        synchronized (bufferLock) {
+            if (buffered != null) {
+                buffered.add(event);
+                return;
+            }
+        }
+        apply(event);
+    }
+
+    // Events describe committed state, so applying one the snapshot already reflects changes nothing
+    private void replayBuffered() {
+        while (true) {
+            List<LedgerChangedEvent> events;
+            synchronized (bufferLock) {
+                events = buffered;
+                buffered = events.isEmpty() ? null : new ArrayList<>();
+            }
+            if (events.isEmpty()) {
+                return;
+            }
+            events.forEach(this::apply);
+        }
+    }
+
+    private void apply(LedgerChangedEvent event) {
+        for (TransactionView transaction : event.changed()) {
+            index(event.userId(), transaction.id(), transaction.transactionDate(), transaction.type(), transaction.notes());
+        }
+        for (Long id : event.deleted()) {
+            UserIndex index = users.get(event.userId());
+            if (index != null) {
+                index.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Ids of the user's transactions whose notes contain every query term (as
+     * a term or a term prefix), newest first.
+     *
+     * @param from inclusive, or null
+     * @param to   inclusive, or null
+     * @param type or null for any
+     */
+    public List<Long> search(Long userId, String query, LocalDate from, LocalDate to,
+                             Transaction.TransactionType type, int limit) {
+        UserIndex index = users.get(userId);
+        List<String> terms = List.copyOf(tokenize(query));
+        if (index == null || terms.isEmpty()) {
+            return List.of();
+        }
+        long fromSecond = from != null ? from.atStartOfDay().toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE;
+        long toSecond = to != null ? to.plusDays(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC) : Long.MAX_VALUE;
+        return index.search(terms, fromSecond, toSecond, type, limit);
+    }
+
+    void index(Long userId, long id, LocalDateTime date, Transaction.TransactionType type, String notes) {
+        Set<String> terms = tokenize(notes);
+        UserIndex index = terms.isEmpty() ? users.get(userId) : users.computeIfAbsent(userId, key -> new UserIndex());
+        if (index == null) {
+            return;
+        }
+        index.put(id, new Doc(terms.toArray(String[]::new), date.toEpochSecond(ZoneOffset.UTC), type));
+    }
+
+    // Distinct lower-cased runs of letters and digits, in order of appearance
+    static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private record Doc(String[] terms, long epochSecond, Transaction.TransactionType type) {
+    }
+
+    private static final class UserIndex {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final TreeMap<String, PostingList> postings = new TreeMap<>();
+        private final Map<Long, Doc> docs = new HashMap<>();
+
+        void put(long id, Doc doc) {
+            lock.writeLock().lock();
+            try {
+                unlink(id);
+                if (doc.terms().length == 0) {
+                    return;
+                }
+                docs.put(id, doc);
+                for (String term : doc.terms()) {
+                    postings.computeIfAbsent(term, t -> new PostingList()).add(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                unlink(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Long> search(List<String> terms, long fromSecond, long toSecond,
+                          Transaction.TransactionType type, int limit) {
+            List<Map.Entry<Long, Doc>> matches = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                long[] ids = null;
+                for (String term : terms) {
+                    long[] termIds = prefixPostings(term);
+                    ids = ids == null ? termIds : PostingList.intersect(ids, termIds);
+                    if (ids.length == 0) {
+                        return List.of();
+                    }
+                }
+                for (long id : ids) {
+                    Doc doc = docs.get(id);
+                    if (doc.epochSecond() >= fromSecond && doc.epochSecond() < toSecond
+                            && (type == null || doc.type() == type)) {
+                        matches.add(Map.entry(id, doc));
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            matches.sort((a, b) -> a.getValue().epochSecond() != b.getValue().epochSecond()
+                    ? Long.compare(b.getValue().epochSecond(), a.getValue().epochSecond())
+                    : Long.compare(b.getKey(), a.getKey()));
+            return matches.stream().limit(limit).map(Map.Entry::getKey).toList();
+        }
+
+        private long[] prefixPostings(String prefix) {
+            NavigableMap<String, PostingList> range = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+            long[] ids = new long[0];
+            for (PostingList list : range.values()) {
+                ids = ids.length == 0 ? list.toArray() : PostingList.union(ids, list.toArray());
+            }
+            return ids;
+        }
+
+        private void unlink(long id) {
+            Doc previous = docs.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (String term : previous.terms()) {
+                PostingList list = postings.get(term);
+                if (list != null) {
+                    list.remove(id);
+                    if (list.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+}
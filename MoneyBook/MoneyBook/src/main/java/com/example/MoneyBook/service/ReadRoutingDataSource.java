@@ -0,0 +1,56 @@
+package com.example.MoneyBook.service;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Sends connections of read-only transactions to the replica pool and
+ * everything else to the primary. The key is decided when a connection is
+ * actually fetched, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction's read-only flag is only known after it has begun.
+ *
+ * A thread can be pinned to the primary, for reads that must see the latest
+ * commit (read-your-writes, or loads that fill a shared cache).
+ */
+public class ReadRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> PINNED = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    // Runs work with every connection it opens taken from the primary
+    public static <T> T onPrimary(Supplier<T> work) {
+        boolean previous = PINNED.get();
+        PINNED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            PINNED.set(previous);
+        }
+    }
+
+    // For the length of a request; must be paired with unpin()
+    public static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED.remove();
+    }
+
+    public static Route currentRoute() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !PINNED.get()
+                ? Route.REPLICA
+                : Route.PRIMARY;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentRoute();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.MoneyBook.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Users whose data changed within the last
+ * {@code datasource.routing.read-your-writes-window}. Their reads stay on the
+ * primary for that long, so a replica that lags behind cannot hide a change
+ * from the client that just made it. The window should exceed the replica's
+ * usual lag.
+ */
+@Component
+public class RecentWriters {
+
+    private final Cache<Long, Boolean> users;
+
+    public RecentWriters(@Value("${datasource.routing.read-your-writes-window:PT5S}") Duration window,
+                         @Value("${datasource.routing.max-tracked-users:100000}") long maxSize) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public void wrote(Long userId) {
+        users.put(userId, Boolean.TRUE);
+    }
+
+    public boolean isRecent(Long userId) {
+        return users.getIfPresent(userId) != null;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLedgerChanged(LedgerChangedEvent event) {
+        wrote(event.userId());
+    }
+
+    void forgetAll() {
+        users.invalidateAll();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.MoneyBook.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders JPEG thumbnails of uploaded images on a small, bounded pool so the
+ * upload request never waits for image decoding. When the queue is full the
+ * request is dropped; the thumbnail is requested again the next time it is
+ * fetched. Images are sized from their header before decoding, and those over
+ * {@link #MAX_PIXELS} get no thumbnail, so a small file declaring huge
+ * dimensions cannot exhaust the heap.
+ */
+@Service
+public class ThumbnailService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    // About 160 MB decoded at four bytes per pixel, per rendering thread
+    static final long MAX_PIXELS = 40_000_000L;
+
+    private final ThreadPoolExecutor executor;
+    private final int maxSize;
+
+    // Thumbnails queued or being rendered, so repeated requests are not queued twice
+    private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+
+    public ThumbnailService(@Value("${attachments.thumbnail.threads:2}") int threads,
+                            @Value("${attachments.thumbnail.queue-capacity:64}") int queueCapacity,
+                            @Value("${attachments.thumbnail.max-size:256}") int maxSize,
+                            MeterRegistry registry) {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.maxSize = maxSize;
+        new ExecutorServiceMetrics(executor, "thumbnails", Tags.empty()).bindTo(registry);
+    }
+
+    // Queues rendering of source into target unless it is already queued
+    public void request(Path source, Path target) {
+        if (!pending.add(target)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    render(source, target);
+                } catch (IOException | RuntimeException e) {
+                    log.atWarn().addKeyValue("source", source.getFileName()).setCause(e).log("Thumbnail failed");
+                } finally {
+                    pending.remove(target);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(target);
+            log.atDebug().addKeyValue("source", source.getFileName()).log("Thumbnail queue full, skipped");
+        }
+    }
+
+    private void render(Path source, Path target) throws IOException {
+        if (Files.exists(target)) {
+            return;
+        }
+        BufferedImage image = decode(source);
+        if (image == null) {
+            return;
+        }
+        double scale = Math.min(1.0, (double) maxSize / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), "thumb-", ".part");
+        try {
+            ImageIO.write(thumbnail, "jpg", tmp.toFile());
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // The decoded image, or null when ImageIO cannot decode it or it is over MAX_PIXELS
+    static BufferedImage decode(Path source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > MAX_PIXELS) {
+                    log.atInfo().addKeyValue("source", source.getFileName()).addKeyValue("pixels", pixels)
+                            .log("Image too large for a thumbnail");
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
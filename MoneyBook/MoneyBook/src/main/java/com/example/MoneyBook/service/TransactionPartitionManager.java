@@ -0,0 +1,226 @@
+package com.example.MoneyBook.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * MySQL storage mode that range-partitions {@code transactions} by month of
+ * {@code transaction_date} and moves cold months to {@code transactions_archive}.
+ *
+ * MySQL requires the partitioning column in every unique key and does not
+ * allow foreign keys on partitioned tables, so the conversion drops the key to
+ * {@code users} and makes the primary key {@code (id, transaction_date)}; ids
+ * stay unique because they come from a sequence. The conversion rebuilds the
+ * whole table, so it never runs at startup: it is an explicit admin step,
+ * {@link #convert()}, exposed as the {@code partitioning} actuator endpoint.
+ * Until then the table is used unpartitioned. A daily job keeps
+ * {@code storage.partitioning.months-ahead} empty months ahead of today and,
+ * for months older than {@code storage.archive.after-months}, copies the rows
+ * into the compressed archive table and drops the partition. Archived rows are
+ * read-only: they are still exported, but can no longer be edited or deleted.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.partitioning.enabled", havingValue = "true")
+public class TransactionPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionPartitionManager.class);
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    static final String OVERFLOW = "pmax";
+
+    static final String CREATE_ARCHIVE = "create table if not exists transactions_archive ("
+            + "id bigint not null primary key, "
+            + "user_id bigint not null, "
+            + "cash_in decimal(10,2) not null, "
+            + "cash_out decimal(10,2) not null, "
+            + "transaction_date datetime(6) not null, "
+            + "type varchar(16) not null, "
+            + "notes varchar(500), "
+            + "linked_transaction_id bigint, "
+            + "key idx_transactions_archive_user_date (user_id, transaction_date, id)"
+            + ") engine=InnoDB row_format=COMPRESSED key_block_size=8";
+
+    private static final String COLUMNS = "id, user_id, cash_in, cash_out, transaction_date, type, notes, linked_transaction_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int archiveAfterMonths;
+    private volatile boolean mysql;
+    private volatile boolean active;
+
+    @Autowired
+    public TransactionPartitionManager(DataSource dataSource,
+                                       @Value("${storage.partitioning.months-ahead:3}") int monthsAhead,
+                                       @Value("${storage.archive.after-months:24}") int archiveAfterMonths) {
+        this(new JdbcTemplate(dataSource), monthsAhead, archiveAfterMonths);
+    }
+
+    TransactionPartitionManager(JdbcTemplate jdbcTemplate, int monthsAhead, int archiveAfterMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.archiveAfterMonths = archiveAfterMonths;
+    }
+
+    // Only looks at the table; an unpartitioned one is left alone until convert() is called
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equalsIgnoreCase(product)) {
+            log.atWarn().addKeyValue("database", product).log("Transaction partitioning needs MySQL, not enabled");
+            return;
+        }
+        mysql = true;
+        active = !existingMonths().isEmpty();
+        if (!active) {
+            log.atWarn().log("Transactions table is not partitioned yet; run the partitioning actuator operation to convert it");
+        }
+    }
+
+    /**
+     * Converts {@code transactions} to monthly partitions and creates the
+     * archive table. Rewrites the whole table, so run it in a quiet period;
+     * calling it on a partitioned table only brings the archive up to date.
+     */
+    public synchronized void convert() {
+        if (!mysql) {
+            throw new IllegalStateException("Transaction partitioning needs MySQL");
+        }
+        jdbcTemplate.execute(CREATE_ARCHIVE);
+        addLinkColumnToArchive();
+        if (existingMonths().isEmpty()) {
+            partition();
+        }
+        active = true;
+    }
+
+    // Whether transactions is partitioned and maintained by this manager
+    public boolean isActive() {
+        return active;
+    }
+
+    // Partitioned months, oldest first
+    public List<YearMonth> months() {
+        return mysql ? existingMonths() : List.of();
+    }
+
+    // Adds upcoming months and archives cold ones
+    @Scheduled(cron = "${storage.partitioning.maintenance-cron:0 15 3 * * *}")
+    public synchronized void maintain() {
+        // Picks up a conversion run through another instance
+        if (!active && mysql) {
+            active = !existingMonths().isEmpty();
+        }
+        if (!active) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        List<YearMonth> existing = existingMonths();
+        List<YearMonth> missing = new ArrayList<>();
+        YearMonth next = existing.isEmpty() ? current : existing.get(existing.size() - 1).plusMonths(1);
+        for (YearMonth month = next; !month.isAfter(current.plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+            missing.add(month);
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.execute(addMonths(missing));
+            log.atInfo().addKeyValue("partitions", missing.size()).log("Transaction partitions added");
+        }
+
+        YearMonth cutoff = current.minusMonths(archiveAfterMonths);
+        for (YearMonth month : existing) {
+            if (month.isBefore(cutoff)) {
+                archive(month);
+            }
+        }
+    }
+
+    // Archives created before transfers existed lack the link to the other leg
+    private void addLinkColumnToArchive() {
+        Integer columns = jdbcTemplate.queryForObject("select count(*) from information_schema.columns "
+                + "where table_schema = database() and table_name = 'transactions_archive' "
+                + "and column_name = 'linked_transaction_id'", Integer.class);
+        if (columns != null && columns == 0) {
+            jdbcTemplate.execute("alter table transactions_archive add column linked_transaction_id bigint");
+        }
+    }
+
+    private void partition() {
+        // Older schemas carry a Hibernate-generated name, so look it up
+        List<String> foreignKeys = jdbcTemplate.queryForList("select constraint_name from information_schema.table_constraints "
+                + "where table_schema = database() and table_name = 'transactions' and constraint_type = 'FOREIGN KEY'", String.class);
+        for (String foreignKey : foreignKeys) {
+            jdbcTemplate.execute("alter table transactions drop foreign key `" + foreignKey + "`");
+        }
+        jdbcTemplate.execute("alter table transactions drop primary key, add primary key (id, transaction_date)");
+
+        Timestamp oldest = jdbcTemplate.queryForObject("select min(transaction_date) from transactions", Timestamp.class);
+        YearMonth first = oldest != null ? YearMonth.from(oldest.toLocalDateTime()) : YearMonth.now();
+        jdbcTemplate.execute(initialPartitioning(first, YearMonth.now().plusMonths(monthsAhead)));
+        log.atInfo().addKeyValue("from", first).log("Transactions table partitioned by month");
+    }
+
+    private void archive(YearMonth month) {
+        String partition = partitionName(month);
+        // Idempotent, so a run interrupted between the two statements is simply repeated
+        int copied = jdbcTemplate.update("insert ignore into transactions_archive (" + COLUMNS + ") "
+                + "select " + COLUMNS + " from transactions partition (" + partition + ")");
+        jdbcTemplate.execute("alter table transactions drop partition " + partition);
+        log.atInfo().addKeyValue("partition", partition).addKeyValue("rows", copied).log("Transaction partition archived");
+    }
+
+    // Months with a partition, oldest first, excluding the overflow partition
+    private List<YearMonth> existingMonths() {
+        return jdbcTemplate.queryForList("select partition_name from information_schema.partitions "
+                        + "where table_schema = database() and table_name = 'transactions' and partition_name is not null "
+                        + "order by partition_ordinal_position", String.class)
+                .stream()
+                .filter(name -> !OVERFLOW.equals(name))
+                .map(name -> YearMonth.parse(name, PARTITION_NAME))
+                .toList();
+    }
+
+    static String partitionName(YearMonth month) {
+        return month.format(PARTITION_NAME);
+    }
+
+    static String initialPartitioning(YearMonth first, YearMonth last) {
+        StringJoiner partitions = new StringJoiner(", ", "alter table transactions partition by range columns (transaction_date) (", ")");
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            partitions.add(definition(month));
+        }
+        partitions.add("partition " + OVERFLOW + " values less than (maxvalue)");
+        return partitions.toString();
+    }
+
+    // New months are split off the overflow partition, which only holds rows dated past the horizon
+    static String addMonths(List<YearMonth> months) {
+        StringJoiner partitions = new StringJoiner(", ", "alter table transactions reorganize partition " + OVERFLOW + " into (", ")");
+        for (YearMonth month : months) {
+            partitions.add(definition(month));
+        }
+        partitions.add("partition " + OVERFLOW + " values less than (maxvalue)");
+        return partitions.toString();
+    }
+
+    private static String definition(YearMonth month) {
+        LocalDate end = month.plusMonths(1).atDay(1);
+        return "partition " + partitionName(month) + " values less than ('" + end + " 00:00:00')";
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.MoneyBook.service;
+
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Read-through cache of users as returned to clients, i.e. with their current
+ * balance. Cached instances are detached and shared between requests, so
+ * callers must not modify them.
+ *
+ * Ledger changes evict the user once they are committed, which keeps a
+ * concurrent read from re-caching the old row.
+ */
+@Service
+public class UserCache {
+
+    public static final String USERS = "users";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BalanceStore balanceStore;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheInvalidationChannel invalidationChannel;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Loaded from the primary: an entry read from a lagging replica would outlive the eviction
+    @Cacheable(cacheNames = USERS, key = "#id", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public User find(Long id) {
+        return ReadRoutingDataSource.onPrimary(() -> load(id));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLedgerChanged(LedgerChangedEvent event) {
+        evict(event.userId());
+    }
+
+    public void evict(Long id) {
+        evictLocal(id);
+        invalidationChannel.publish(USERS, id);
+    }
+
+    // Drops the entry on this instance only, e.g. on a message from another instance
+    public void evictLocal(Long id) {
+        Cache cache = cacheManager.getCache(USERS);
+        if (cache != null) {
+            cache.evict(id);
+        }
+    }
+
+    private User load(Long id) {
+        User user = userRepository.findById(id).orElse(null);
+        if (user == null) {
+            return null;
+        }
+        user = balanceStore.withCurrentBalance(user);
+        if (entityManager.contains(user)) {
+            entityManager.detach(user);
+        }
+        return user;
+    }
+}
@@ -0,0 +1,94 @@
+-- Initial schema for H2 (tests and benchmarks); keep in step with db/migration/mysql,
+-- including the guards that upgrade a schema Hibernate created before the migrations
+
+create table if not exists users (
+    id bigint generated by default as identity,
+    username varchar(255) not null,
+    name varchar(255),
+    password varchar(255) not null,
+    balance numeric(10,2) not null,
+    ledger_version bigint default 0 not null,
+    primary key (id),
+    constraint uk_users_username unique (username)
+);
+
+alter table users add column if not exists ledger_version bigint default 0 not null;
+
+create table if not exists transactions (
+    id bigint not null,
+    user_id bigint not null,
+    cash_in numeric(10,2) not null,
+    cash_out numeric(10,2) not null,
+    transaction_date timestamp(6) not null,
+    type enum ('CASHIN','CASHOUT') not null,
+    notes varchar(500),
+    primary key (id),
+    constraint fk_transactions_user foreign key (user_id) references users (id)
+);
+
+create index if not exists idx_transactions_user_date_id on transactions (user_id, transaction_date, id);
+
+create sequence if not exists transactions_seq start with 1 increment by 50;
+alter sequence transactions_seq restart with (select coalesce(max(id) + 50, 1) from transactions);
+
+create table if not exists daily_summaries (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    summary_date date not null,
+    cash_in numeric(14,2) not null,
+    cash_out numeric(14,2) not null,
+    transaction_count bigint not null,
+    primary key (id),
+    constraint uk_daily_summaries_user_date unique (user_id, summary_date)
+);
+
+create table if not exists ledger_entries (
+    id bigint not null,
+    user_id bigint not null,
+    seq bigint not null,
+    kind enum ('ADJUSTMENT','CASHIN','CASHOUT','CORRECTION','REVERSAL') not null,
+    amount numeric(14,2) not null,
+    transaction_id bigint,
+    created_at timestamp(6) not null,
+    primary key (id),
+    constraint uk_ledger_entries_user_seq unique (user_id, seq)
+);
+
+create sequence if not exists ledger_entries_seq start with 1 increment by 50;
+
+create table if not exists balance_snapshots (
+    user_id bigint not null,
+    balance numeric(14,2) not null,
+    last_seq bigint not null,
+    taken_at timestamp(6) not null,
+    primary key (user_id)
+);
+
+create table if not exists attachments (
+    id bigint generated by default as identity,
+    transaction_id bigint not null,
+    sha256 varchar(64) not null,
+    file_name varchar(255),
+    content_type varchar(100) not null,
+    size bigint not null,
+    created_at timestamp(6) not null,
+    primary key (id)
+);
+
+create index if not exists idx_attachments_transaction on attachments (transaction_id);
+create index if not exists idx_attachments_sha256 on attachments (sha256);
+
+create table if not exists idempotency_keys (
+    id bigint not null,
+    user_id bigint not null,
+    idempotency_key varchar(64) not null,
+    fingerprint varchar(64) not null,
+    transaction_id bigint not null,
+    created_at timestamp(6) not null,
+    primary key (id),
+    constraint uk_idempotency_keys_user_key unique (user_id, idempotency_key)
+);
+
+create index if not exists idx_idempotency_keys_created on idempotency_keys (created_at);
+
+create sequence if not exists idempotency_keys_seq start with 1 increment by 50;
@@ -0,0 +1,6 @@
+-- Transfers between users: two TRANSFER rows linked to each other
+
+alter table transactions alter column type enum ('CASHIN','CASHOUT','TRANSFER') not null;
+alter table transactions add column linked_transaction_id bigint;
+
+alter table ledger_entries alter column kind enum ('ADJUSTMENT','CASHIN','CASHOUT','CORRECTION','REVERSAL','TRANSFER') not null;
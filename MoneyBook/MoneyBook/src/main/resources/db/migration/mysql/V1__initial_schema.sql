@@ -0,0 +1,120 @@
+-- Initial schema, matching the JPA entities (validated with ddl-auto=validate).
+-- Databases created by Hibernate before the migrations (ddl-auto=create) already
+-- hold users and transactions, without the columns, index and id sequence added
+-- here; every step is guarded so this upgrades such a schema in place.
+
+create table if not exists users (
+    id bigint not null auto_increment,
+    username varchar(255) not null,
+    name varchar(255),
+    password varchar(255) not null,
+    balance decimal(10,2) not null,
+    ledger_version bigint not null default 0,
+    primary key (id),
+    constraint uk_users_username unique (username)
+) engine=InnoDB;
+
+set @ddl = if((select count(*) from information_schema.columns
+               where table_schema = database() and table_name = 'users' and column_name = 'ledger_version') = 0,
+              'alter table users add column ledger_version bigint not null default 0',
+              'do 0');
+prepare ddl from @ddl;
+execute ddl;
+deallocate prepare ddl;
+
+create table if not exists transactions (
+    id bigint not null,
+    user_id bigint not null,
+    cash_in decimal(10,2) not null,
+    cash_out decimal(10,2) not null,
+    transaction_date datetime(6) not null,
+    type enum ('CASHIN','CASHOUT') not null,
+    notes varchar(500),
+    primary key (id),
+    constraint fk_transactions_user foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+-- Newest-first history pages and keyset cursors
+set @ddl = if((select count(*) from information_schema.statistics
+               where table_schema = database() and table_name = 'transactions'
+               and index_name = 'idx_transactions_user_date_id') = 0,
+              'create index idx_transactions_user_date_id on transactions (user_id, transaction_date, id)',
+              'do 0');
+prepare ddl from @ddl;
+execute ddl;
+deallocate prepare ddl;
+
+-- Hibernate emulates sequences with single-row tables on MySQL. The pooled optimizer
+-- hands out the 50 ids up to the stored value, so over existing rows it starts at max(id) + 50
+create table if not exists transactions_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into transactions_seq
+    select next_val from (select coalesce(max(id) + 50, 1) as next_val from transactions) seed
+    where not exists (select * from transactions_seq);
+
+create table if not exists daily_summaries (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    summary_date date not null,
+    cash_in decimal(14,2) not null,
+    cash_out decimal(14,2) not null,
+    transaction_count bigint not null,
+    primary key (id),
+    constraint uk_daily_summaries_user_date unique (user_id, summary_date)
+) engine=InnoDB;
+
+create table if not exists ledger_entries (
+    id bigint not null,
+    user_id bigint not null,
+    seq bigint not null,
+    kind enum ('ADJUSTMENT','CASHIN','CASHOUT','CORRECTION','REVERSAL') not null,
+    amount decimal(14,2) not null,
+    transaction_id bigint,
+    created_at datetime(6) not null,
+    primary key (id),
+    constraint uk_ledger_entries_user_seq unique (user_id, seq)
+) engine=InnoDB;
+
+create table if not exists ledger_entries_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into ledger_entries_seq select 1 from dual where not exists (select * from ledger_entries_seq);
+
+create table if not exists balance_snapshots (
+    user_id bigint not null,
+    balance decimal(14,2) not null,
+    last_seq bigint not null,
+    taken_at datetime(6) not null,
+    primary key (user_id)
+) engine=InnoDB;
+
+create table if not exists attachments (
+    id bigint not null auto_increment,
+    transaction_id bigint not null,
+    sha256 varchar(64) not null,
+    file_name varchar(255),
+    content_type varchar(100) not null,
+    size bigint not null,
+    created_at datetime(6) not null,
+    primary key (id),
+    index idx_attachments_transaction (transaction_id),
+    index idx_attachments_sha256 (sha256)
+) engine=InnoDB;
+
+create table if not exists idempotency_keys (
+    id bigint not null,
+    user_id bigint not null,
+    idempotency_key varchar(64) not null,
+    fingerprint varchar(64) not null,
+    transaction_id bigint not null,
+    created_at datetime(6) not null,
+    primary key (id),
+    constraint uk_idempotency_keys_user_key unique (user_id, idempotency_key),
+    index idx_idempotency_keys_created (created_at)
+) engine=InnoDB;
+
+create table if not exists idempotency_keys_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into idempotency_keys_seq select 1 from dual where not exists (select * from idempotency_keys_seq);
@@ -0,0 +1,8 @@
+-- Transfers between users: two TRANSFER rows linked to each other
+
+alter table transactions
+    modify type enum ('CASHIN','CASHOUT','TRANSFER') not null,
+    add column linked_transaction_id bigint;
+
+alter table ledger_entries
+    modify kind enum ('ADJUSTMENT','CASHIN','CASHOUT','CORRECTION','REVERSAL','TRANSFER') not null;
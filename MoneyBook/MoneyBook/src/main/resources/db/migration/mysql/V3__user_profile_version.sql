@@ -0,0 +1,3 @@
+-- Version of the user's profile (password etc.), part of the user ETag
+
+alter table users add column profile_version bigint not null default 0;
@@ -0,0 +1,68 @@
+package com.example.MoneyBook;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.MoneyBook.dto.TransactionView;
+import com.example.MoneyBook.model.Transaction;
+import com.example.MoneyBook.repo.TransactionRepository;
+import com.example.MoneyBook.service.LedgerService;
+
+/**
+ * Starts the app on a database Hibernate created before the Flyway migrations
+ * existed: it has to be baselined, upgraded by V1 onwards and then pass schema
+ * validation with the old rows intact.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LegacySchemaMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:legacy;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @DynamicPropertySource
+    static void legacyDatabase(DynamicPropertyRegistry registry) {
+        new ResourceDatabasePopulator(new ClassPathResource("db/legacy-schema.sql"))
+                .execute(new DriverManagerDataSource(URL, "sa", ""));
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    void upgradesSchemaCreatedByHibernate() {
+        assertEquals(List.of("0", "1", "2", "3"), jdbcTemplate.queryForList(
+                "select \"version\" from \"flyway_schema_history\" where \"version\" is not null order by \"installed_rank\"", String.class));
+        assertEquals(0, ledgerService.balanceOf(1L).compareTo(new BigDecimal("70.00")));
+
+        // New ids come from the sequence, which has to start past the rows ids were generated for by the table
+        Transaction deposit = ledgerService.deposit(1L, new BigDecimal("5.00"), "after upgrade");
+        assertTrue(deposit.getId() > 2, "id " + deposit.getId());
+        assertEquals(0, ledgerService.balanceOf(1L).compareTo(new BigDecimal("75.00")));
+
+        List<TransactionView> history = transactionRepository.findLatestByUser(1L, Limit.of(10));
+        assertEquals(List.of("after upgrade", "groceries", "opening deposit"),
+                history.stream().map(TransactionView::notes).toList());
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.MoneyBook;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Drives the transaction endpoints over HTTP with many concurrent clients, once on
+ * the platform-thread Tomcat pool and once with virtual threads, and prints
+ * throughput and p99 latency for each.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=ThreadingModeBenchmarkTest -Dbench.clients=400 -Dbench.requests=50
+ */
+@Tag("benchmark")
+class ThreadingModeBenchmarkTest {
+
+    private static final int CLIENTS = Integer.getInteger("bench.clients", 400);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("bench.requests", 50);
+    private static final int USERS = 50;
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("platform threads: %8.0f req/s  p50=%6.2fms  p99=%6.2fms%n",
+                platform.throughput, platform.p50Millis, platform.p99Millis);
+        System.out.printf("virtual threads:  %8.0f req/s  p50=%6.2fms  p99=%6.2fms%n",
+                virtual.throughput, virtual.p50Millis, virtual.p99Millis);
+        assertEquals(0, platform.errors, "platform-thread errors");
+        assertEquals(0, virtual.errors, "virtual-thread errors");
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MoneyBookApplication.class)
+                .profiles("test")
+                .properties("server.port=0",
+                        // Measures the threading model, not the shedding of load beyond the pool size
+                        "admission.enabled=false",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:threading-" + virtualThreads
+                                + ";MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+                .run()) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            long firstUser = -1;
+            for (int i = 0; i < USERS; i++) {
+                jdbcTemplate.update("insert into users (username, name, password, balance) values (?, ?, ?, ?)",
+                        "load" + i, "load" + i, "pw", 1_000_000);
+                if (firstUser < 0) {
+                    firstUser = jdbcTemplate.queryForObject("select id from users where username = 'load0'", Long.class);
+                }
+            }
+
+            String base = "http://localhost:" + port + "/api/transactions";
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+            runClients(client, base, firstUser, Math.max(1, CLIENTS / 10)); // warm up
+
+            long start = System.nanoTime();
+            Result result = runClients(client, base, firstUser, CLIENTS);
+            result.throughput = (double) CLIENTS * REQUESTS_PER_CLIENT / ((System.nanoTime() - start) / 1e9);
+            return result;
+        }
+    }
+
+    private Result runClients(HttpClient client, String base, long firstUser, int clients) throws Exception {
+        AtomicInteger errors = new AtomicInteger();
+        List<Future<long[]>> futures = new ArrayList<>();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                long userId = firstUser + (c % USERS);
+                futures.add(pool.submit(() -> {
+                    long[] latencies = new long[REQUESTS_PER_CLIENT];
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        HttpRequest request = r % 2 == 0
+                                ? HttpRequest.newBuilder(URI.create(base + "/deposit"))
+                                        .header("Content-Type", "application/json")
+                                        .POST(HttpRequest.BodyPublishers.ofString(
+                                                "{\"user\":{\"id\":" + userId + "},\"cashIn\":1}"))
+                                        .build()
+                                : HttpRequest.newBuilder(URI.create(base + "/user/" + userId + "?size=20")).GET().build();
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[r] = System.nanoTime() - start;
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+        }
+
+        long[] all = new long[clients * REQUESTS_PER_CLIENT];
+        int i = 0;
+        for (Future<long[]> future : futures) {
+            for (long latency : future.get()) {
+                all[i++] = latency;
+            }
+        }
+        Arrays.sort(all);
+        Result result = new Result();
+        result.errors = errors.get();
+        result.p50Millis = all[all.length / 2] / 1e6;
+        result.p99Millis = all[(int) (all.length * 0.99)] / 1e6;
+        return result;
+    }
+
+    private static class Result {
+        double throughput;
+        double p50Millis;
+        double p99Millis;
+        int errors;
+    }
+}
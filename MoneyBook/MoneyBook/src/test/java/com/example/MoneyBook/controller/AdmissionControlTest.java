@@ -0,0 +1,109 @@
+package com.example.MoneyBook.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.UserRepository;
+import com.example.MoneyBook.service.AdmissionControl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// One write per 10 seconds with a burst of 2, so the third write in a row is refused
+@SpringBootTest(properties = {
+        "admission.user.rate=0.1",
+        "admission.user.burst=2",
+        "admission.max-concurrent=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdmissionControlTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long newUser() {
+        return userRepository.save(new User("admission-" + System.nanoTime(), "pw", BigDecimal.TEN)).getId();
+    }
+
+    private ResultActions deposit(Long userId) throws Exception {
+        return mockMvc.perform(post("/api/transactions/deposit").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"user\":{\"id\":" + userId + "},\"cashIn\":1}"));
+    }
+
+    private double shed(String limit) {
+        return meterRegistry.find("ledger.admission.rejections").tag("limit", limit).counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    @Test
+    void userOverRateIsRejectedWithRetryAfter() throws Exception {
+        Long busy = newUser();
+        double before = shed("user");
+        String body = deposit(busy).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        long transactionId = objectMapper.readTree(body).get("id").asLong();
+        deposit(busy).andExpect(status().isOk());
+
+        String retryAfter = deposit(busy)
+                .andExpect(status().isTooManyRequests())
+                .andReturn().getResponse().getHeader("Retry-After");
+        assertTrue(Long.parseLong(retryAfter) > 0);
+        // Changes to the user's transactions draw from the same bucket
+        mockMvc.perform(delete("/api/transactions/" + transactionId))
+                .andExpect(status().isTooManyRequests());
+        // Other users and reads are not affected
+        deposit(newUser()).andExpect(status().isOk());
+        mockMvc.perform(get("/api/transactions/recent/" + busy)).andExpect(status().isOk());
+
+        assertEquals(before + 2, shed("user"));
+    }
+
+    @Test
+    void writesBeyondTheGlobalLimitAreShed() throws Exception {
+        Long userId = newUser();
+        double before = shed("global");
+        assertTrue(admissionControl.tryEnter());
+        assertTrue(admissionControl.tryEnter());
+        try {
+            deposit(userId)
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("Retry-After", "1"));
+            mockMvc.perform(get("/api/transactions/recent/" + userId)).andExpect(status().isOk());
+        } finally {
+            admissionControl.exit();
+            admissionControl.exit();
+        }
+        deposit(userId).andExpect(status().isOk());
+        assertEquals(before + 1, shed("global"));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.MoneyBook.controller;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.UserRepository;
+import com.example.MoneyBook.service.LedgerService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AttachmentControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Test
+    void identicalUploadsShareOneBlobAndSupportRanges() throws Exception {
+        Long first = newTransaction();
+        Long second = newTransaction();
+        byte[] content = ("receipt " + System.nanoTime()).getBytes(StandardCharsets.UTF_8);
+
+        JsonNode a = upload(first, new MockMultipartFile("file", "a.txt", "text/plain", content));
+        JsonNode b = upload(second, new MockMultipartFile("file", "b.txt", "text/plain", content));
+        assertEquals(a.get("sha256").asText(), b.get("sha256").asText());
+        assertEquals(content.length, a.get("size").asLong());
+
+        MvcResult full = mockMvc.perform(get("/api/attachments/" + a.get("id").asLong()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andReturn();
+        assertArrayEquals(content, full.getResponse().getContentAsByteArray());
+
+        MvcResult partial = mockMvc.perform(get("/api/attachments/" + b.get("id").asLong())
+                        .header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/" + content.length))
+                .andReturn();
+        assertArrayEquals(Arrays.copyOfRange(content, 2, 6), partial.getResponse().getContentAsByteArray());
+
+        mockMvc.perform(get("/api/attachments/" + a.get("id").asLong()).header(HttpHeaders.RANGE, "bytes=9999-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+
+        // Deleting one transaction keeps the blob the other one still uses
+        ledgerService.deleteTransaction(first);
+        mockMvc.perform(get("/api/attachments/" + a.get("id").asLong())).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/attachments/" + b.get("id").asLong())).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/attachments/" + b.get("id").asLong())).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/transactions/" + second + "/attachments"))
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void rendersThumbnailInBackground() throws Exception {
+        BufferedImage image = new BufferedImage(1024, 512, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(10, 10, (int) System.nanoTime());
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+
+        JsonNode attachment = upload(newTransaction(),
+                new MockMultipartFile("file", "receipt.png", "image/png", png.toByteArray()));
+
+        MvcResult thumbnail = null;
+        for (int i = 0; i < 100 && thumbnail == null; i++) {
+            MvcResult result = mockMvc.perform(get("/api/attachments/" + attachment.get("id").asLong() + "/thumbnail"))
+                    .andReturn();
+            if (result.getResponse().getStatus() == 200) {
+                thumbnail = result;
+            } else {
+                Thread.sleep(50);
+            }
+        }
+        BufferedImage rendered = ImageIO.read(new java.io.ByteArrayInputStream(thumbnail.getResponse().getContentAsByteArray()));
+        assertEquals(256, rendered.getWidth());
+        assertEquals(128, rendered.getHeight());
+    }
+
+    @Test
+    void onlyRasterImagesAreShownInline() throws Exception {
+        Long transactionId = newTransaction();
+        byte[] svg = "<svg xmlns=\"http://www.w3.org/2000/svg\"><script>alert(1)</script></svg>".getBytes(StandardCharsets.UTF_8);
+        JsonNode script = upload(transactionId, new MockMultipartFile("file", "receipt.svg", "image/svg+xml", svg));
+        JsonNode picture = upload(transactionId, new MockMultipartFile("file", "receipt.png", "image/png", new byte[] {1, 2, 3}));
+
+        mockMvc.perform(get("/api/attachments/" + script.get("id").asLong()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, startsWith("attachment;")))
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"));
+        mockMvc.perform(get("/api/attachments/" + picture.get("id").asLong()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, startsWith("inline;")))
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"));
+    }
+
+    @Test
+    void uploadToUnknownTransactionIsNotFound() throws Exception {
+        mockMvc.perform(multipart("/api/transactions/999999999/attachments")
+                        .file(new MockMultipartFile("file", "x.txt", "text/plain", new byte[] {1})))
+                .andExpect(status().isNotFound());
+    }
+
+    private Long newTransaction() {
+        Long userId = userRepository.save(new User("attach-" + System.nanoTime(), "pw", new BigDecimal("10.00"))).getId();
+        return ledgerService.deposit(userId, BigDecimal.ONE, null).getId();
+    }
+
+    private JsonNode upload(Long transactionId, MockMultipartFile file) throws Exception {
+        MvcResult result = mockMvc.perform(multipart("/api/transactions/" + transactionId + "/attachments").file(file))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.MoneyBook.controller;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.MoneyBook.model.Transaction;
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.UserRepository;
+import com.example.MoneyBook.service.LedgerService;
+
+/**
+ * Deposit throughput with the structured, level-guarded logging against the
+ * System.out.println sequence the deposit endpoint used to run. The legacy
+ * output goes to a discarding PrintStream, so the comparison measures string
+ * building, toString() calls and stdout lock contention rather than terminal speed.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=DepositLoggingBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "admission.enabled=false")
+@ActiveProfiles("test")
+class DepositLoggingBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int DEPOSITS_PER_THREAD = Integer.getInteger("bench.deposits", 2_000);
+
+    @Autowired
+    private TransactionController transactionController;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void compareDepositThroughput() throws Exception {
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            userIds.add(userRepository.save(new User("log-bench-" + i, "pw")).getId());
+        }
+
+        PrintStream stdout = System.out;
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream(), true);
+        double legacy;
+        try {
+            System.setOut(discard);
+            measure(userIds, this::legacyDeposit); // warm up
+            legacy = measure(userIds, this::legacyDeposit);
+        } finally {
+            System.setOut(stdout);
+        }
+        measure(userIds, this::structuredDeposit); // warm up
+        double structured = measure(userIds, this::structuredDeposit);
+
+        System.out.printf("System.out logging:  %8.0f deposits/s%n", legacy);
+        System.out.printf("structured logging:  %8.0f deposits/s%n", structured);
+    }
+
+    private void structuredDeposit(Long userId) {
+        Transaction request = depositRequest(userId);
+        transactionController.deposit(request, null);
+    }
+
+    // The statements the deposit endpoint printed on every call before structured logging
+    private void legacyDeposit(Long userId) {
+        Transaction depositRequest = depositRequest(userId);
+        System.out.println("=== DEPOSIT REQUEST ===");
+        System.out.println("Received deposit request: " + depositRequest);
+        System.out.println("User from request: " + depositRequest.getUser());
+        System.out.println("User ID: " + userId);
+        User user = depositRequest.getUser();
+        System.out.println("Found user: " + user);
+        System.out.println("Cash in amount: " + depositRequest.getCashIn());
+        System.out.println("Updated balance: " + user.getBalance().add(depositRequest.getCashIn()));
+        System.out.println("User saved successfully");
+        Transaction saved = ledgerService.deposit(userId, depositRequest.getCashIn(), depositRequest.getNotes());
+        System.out.println("Creating transaction: " + saved);
+        System.out.println("Transaction saved successfully with ID: " + saved.getId());
+    }
+
+    private static Transaction depositRequest(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setUsername("log-bench");
+        Transaction request = new Transaction();
+        request.setUser(user);
+        request.setCashIn(BigDecimal.ONE);
+        request.setNotes("benchmark deposit");
+        return request;
+    }
+
+    private double measure(List<Long> userIds, DepositCall call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (Long userId : userIds) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < DEPOSITS_PER_THREAD; i++) {
+                    call.deposit(userId);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        return (double) THREADS * DEPOSITS_PER_THREAD / ((System.nanoTime() - start) / 1e9);
+    }
+
+    @FunctionalInterface
+    private interface DepositCall {
+        void deposit(Long userId);
+    }
+}
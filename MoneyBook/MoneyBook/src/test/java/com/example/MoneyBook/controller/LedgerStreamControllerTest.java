@@ -0,0 +1,93 @@
+package com.example.MoneyBook.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.UserRepository;
+import com.example.MoneyBook.service.LedgerService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "ledger.stream.coalesce-window=PT0.5S")
+@ActiveProfiles("test")
+class LedgerStreamControllerTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void coalescesRapidChangesIntoFewEvents() throws Exception {
+        Long userId = userRepository.save(new User("stream-" + System.nanoTime(), "pw", new BigDecimal("10.00"))).getId();
+
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/transactions/stream/" + userId)).build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        BlockingQueue<JsonNode> events = new LinkedBlockingQueue<>();
+        Thread reader = new Thread(() -> {
+            try (BufferedReader lines = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    if (line.startsWith("data:")) {
+                        events.add(objectMapper.readTree(line.substring(5)));
+                    }
+                }
+            } catch (Exception e) {
+                // stream closed
+            }
+        });
+        reader.setDaemon(true);
+        reader.start();
+
+        JsonNode initial = events.poll(10, TimeUnit.SECONDS);
+        assertEquals(0, new BigDecimal("10.00").compareTo(initial.get("balance").decimalValue()));
+
+        Set<Long> created = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(ledgerService.deposit(userId, BigDecimal.ONE, null).getId());
+        }
+
+        Set<Long> seen = new HashSet<>();
+        int updates = 0;
+        JsonNode last = null;
+        while (!seen.containsAll(created)) {
+            last = events.poll(10, TimeUnit.SECONDS);
+            updates++;
+            last.get("changed").forEach(id -> seen.add(id.asLong()));
+        }
+        assertTrue(updates < created.size(), "expected coalesced updates, got " + updates);
+        assertEquals(0, new BigDecimal("15.00").compareTo(last.get("balance").decimalValue()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.MoneyBook.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Login throughput while the users table grows. Each round logs in a spread of
+ * existing users; with an indexed lookup the rate should not depend on the user count.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=LoginBenchmarkTest -Dbench.users=2000,20000,200000
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoginBenchmarkTest {
+
+    private static final int LOGINS = 2_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void loginThroughputStaysFlatAsUsersGrow() throws Exception {
+        long[] sizes = Arrays.stream(System.getProperty("bench.users", "2000,20000,200000").split(","))
+                .mapToLong(s -> Long.parseLong(s.trim()))
+                .toArray();
+
+        long users = 0;
+        List<Double> rates = new ArrayList<>();
+        for (long target : sizes) {
+            while (users < target) {
+                int chunk = (int) Math.min(10_000, target - users);
+                insertUsers(users, chunk);
+                users += chunk;
+            }
+
+            runLogins(users, LOGINS); // warm up
+            long start = System.nanoTime();
+            runLogins(users, LOGINS);
+            double perSecond = LOGINS / ((System.nanoTime() - start) / 1e9);
+            rates.add(perSecond);
+            System.out.printf("users=%,d logins/s=%.0f%n", users, perSecond);
+        }
+
+        double drop = rates.get(0) / rates.get(rates.size() - 1);
+        assertTrue(drop < 3.0, "login throughput dropped " + drop + "x");
+    }
+
+    private void runLogins(long users, int count) throws Exception {
+        long step = Math.max(1, users / count);
+        for (int i = 0; i < count; i++) {
+            long n = (i * step) % users;
+            mockMvc.perform(post("/api/users/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"username\":\"user" + n + "\",\"password\":\"pw" + n + "\"}"))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    private void insertUsers(long offset, int count) {
+        List<Object[]> batch = new ArrayList<>(count);
+        for (long n = offset; n < offset + count; n++) {
+            batch.add(new Object[] {"user" + n, "user" + n, "pw" + n, 500});
+        }
+        jdbcTemplate.batchUpdate("insert into users (username, name, password, balance) values (?, ?, ?, ?)", batch);
+    }
+}
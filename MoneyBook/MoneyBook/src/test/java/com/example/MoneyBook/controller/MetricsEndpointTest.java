@@ -0,0 +1,53 @@
+package com.example.MoneyBook.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.UserRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void exposesLedgerPoolAndRequestMetrics() throws Exception {
+        Long userId = userRepository.save(new User("metrics-user", "pw", new BigDecimal("1.00"))).getId();
+        mockMvc.perform(post("/api/transactions/deposit").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"user\":{\"id\":" + userId + "},\"cashIn\":5}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/transactions/withdraw").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"user\":{\"id\":" + userId + "},\"cashOut\":500}"))
+                .andExpect(status().isBadRequest());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("ledger_rejections_total{application=\"MoneyBook\",operation=\"withdraw\",reason=\"insufficient_funds\"}"));
+        assertTrue(scrape.contains("ledger_commit_seconds_bucket{application=\"MoneyBook\",operation=\"deposit\""));
+        assertTrue(scrape.contains("hikaricp_connections_pending"));
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.MoneyBook.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.UserRepository;
+
+@SpringBootTest(properties = "transactions.batch.chunk-size=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransactionBatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void ingestsJsonArrayAcrossChunks() throws Exception {
+        Long a = userRepository.save(new User("batch-a", "pw", new BigDecimal("10.00"))).getId();
+        Long b = userRepository.save(new User("batch-b", "pw", new BigDecimal("0.00"))).getId();
+
+        String body = "["
+                + "{\"userId\":" + a + ",\"type\":\"CASHIN\",\"amount\":5},"
+                + "{\"userId\":" + b + ",\"type\":\"CASHOUT\",\"amount\":1},"
+                + "{\"userId\":" + a + ",\"type\":\"CASHOUT\",\"amount\":12,\"notes\":\"rent\"},"
+                + "{\"userId\":999999,\"type\":\"CASHIN\",\"amount\":1},"
+                + "{\"userId\":" + b + ",\"type\":\"CASHIN\",\"amount\":-3}"
+                + "]";
+
+        mockMvc.perform(post("/api/transactions/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.results[1].error").value("Insufficient funds"))
+                .andExpect(jsonPath("$.results[2].status").value("OK"))
+                .andExpect(jsonPath("$.results[3].error").value("User not found"))
+                .andExpect(jsonPath("$.results[4].index").value(4));
+
+        assertEquals(0, new BigDecimal("3.00").compareTo(userRepository.findById(a).orElseThrow().getBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(userRepository.findById(b).orElseThrow().getBalance()));
+    }
+
+    @Test
+    void ingestsNdjsonAndReportsMalformedTail() throws Exception {
+        Long a = userRepository.save(new User("batch-nd", "pw", new BigDecimal("0.00"))).getId();
+
+        String body = "{\"userId\":" + a + ",\"type\":\"CASHIN\",\"amount\":7}\n"
+                + "{\"userId\":" + a + ",\"type\":\"CASHOUT\",\"amount\":2}\n"
+                + "{\"userId\":" + a + ",\"type\":\"CASHIN\",\"amount\":\n";
+
+        mockMvc.perform(post("/api/transactions/batch").contentType("application/x-ndjson").content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.results[2].status").value("REJECTED"));
+
+        assertEquals(0, new BigDecimal("5.00").compareTo(userRepository.findById(a).orElseThrow().getBalance()));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.MoneyBook.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.UserRepository;
+import com.example.MoneyBook.service.LedgerService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransactionExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Test
+    void exportsCsvWithEscapedNotes() throws Exception {
+        Long userId = userRepository.save(new User("export-csv", "pw", new BigDecimal("10.00"))).getId();
+        ledgerService.deposit(userId, new BigDecimal("2.50"), "rent, \"june\"");
+
+        String csv = new String(export("/api/transactions/export/" + userId), StandardCharsets.UTF_8);
+        String[] lines = csv.split("\n");
+
+        assertEquals(2, lines.length);
+        assertEquals("id,type,cashIn,cashOut,transactionDate,notes", lines[0]);
+        assertTrue(lines[1].contains(",CASHIN,2.50,0.00,"));
+        assertTrue(lines[1].endsWith(",\"rent, \"\"june\"\"\""));
+    }
+
+    @Test
+    void exportsGzippedNdjson() throws Exception {
+        Long userId = userRepository.save(new User("export-ndjson", "pw", new BigDecimal("10.00"))).getId();
+        ledgerService.deposit(userId, new BigDecimal("1.00"), null);
+        ledgerService.withdraw(userId, new BigDecimal("3.00"), "coffee");
+
+        byte[] body = export("/api/transactions/export/" + userId + "?format=ndjson&gzip=true");
+        String ndjson = new String(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes(), StandardCharsets.UTF_8);
+        String[] lines = ndjson.split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("\"type\":\"CASHOUT\""));
+        assertTrue(lines[1].contains("\"notes\":\"coffee\""));
+    }
+
+    private byte[] export(String url) throws Exception {
+        MvcResult started = mockMvc.perform(get(url)).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+}
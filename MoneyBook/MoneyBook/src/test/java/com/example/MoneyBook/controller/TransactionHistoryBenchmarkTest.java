@@ -0,0 +1,125 @@
+package com.example.MoneyBook.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Measures the cost of one history request while the transactions table grows.
+ * The measured user always owns the same number of rows; everything else belongs
+ * to other users, so a user-scoped indexed query should stay flat.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=TransactionHistoryBenchmarkTest -Dbench.rows=10000,100000,1000000
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransactionHistoryBenchmarkTest {
+
+    private static final int USER_ROWS = 1_000;
+    private static final int OTHER_USERS = 1_000;
+    private static final int REQUESTS = 200;
+
+    // Seeded ids start far above anything the pooled sequence hands out during the run
+    private long nextTransactionId = 1_000_000_000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void historyRequestCostStaysFlatAsTableGrows() throws Exception {
+        long[] sizes = Arrays.stream(System.getProperty("bench.rows", "10000,100000,1000000").split(","))
+                .mapToLong(s -> Long.parseLong(s.trim()))
+                .toArray();
+
+        long measuredUser = insertUser("bench-target");
+        long firstOtherUser = -1;
+        for (int i = 0; i < OTHER_USERS; i++) {
+            long id = insertUser("bench-other-" + i);
+            if (firstOtherUser < 0) {
+                firstOtherUser = id;
+            }
+        }
+        insertTransactions(measuredUser, 1, USER_ROWS, LocalDateTime.now().minusDays(30));
+
+        long rows = USER_ROWS;
+        List<Double> firstPageMicros = new ArrayList<>();
+        List<Double> deepPageMicros = new ArrayList<>();
+        for (long target : sizes) {
+            while (rows < target) {
+                int chunk = (int) Math.min(10_000, target - rows);
+                insertTransactions(firstOtherUser, OTHER_USERS, chunk,
+                        LocalDateTime.now().minusDays(60));
+                rows += chunk;
+            }
+
+            String url = "/api/transactions/user/" + measuredUser + "?size=20";
+            MvcResult first = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn();
+            String cursor = first.getResponse().getHeader("X-Next-Cursor");
+            String deepUrl = url + "&cursor=" + cursor;
+
+            double firstPage = medianMicros(url);
+            double deepPage = medianMicros(deepUrl);
+            firstPageMicros.add(firstPage);
+            deepPageMicros.add(deepPage);
+            System.out.printf("rows=%,d firstPage=%.1fus nextPage=%.1fus%n", rows, firstPage, deepPage);
+        }
+
+        double growth = firstPageMicros.get(firstPageMicros.size() - 1) / firstPageMicros.get(0);
+        double deepGrowth = deepPageMicros.get(deepPageMicros.size() - 1) / deepPageMicros.get(0);
+        assertTrue(growth < 3.0, "first page cost grew " + growth + "x");
+        assertTrue(deepGrowth < 3.0, "next page cost grew " + deepGrowth + "x");
+    }
+
+    private double medianMicros(String url) throws Exception {
+        // Warm up before measuring
+        for (int i = 0; i < 500; i++) {
+            mockMvc.perform(get(url)).andExpect(status().isOk());
+        }
+        long[] samples = new long[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            long start = System.nanoTime();
+            mockMvc.perform(get(url)).andExpect(status().isOk());
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[REQUESTS / 2] / 1_000.0;
+    }
+
+    private long insertUser(String username) {
+        jdbcTemplate.update("insert into users (username, name, password, balance) values (?, ?, ?, ?)",
+                username, username, "secret", 500);
+        return jdbcTemplate.queryForObject("select id from users where username = ?", Long.class, username);
+    }
+
+    // Inserts count rows spread round-robin over userSpan consecutive user ids starting at firstUser
+    private void insertTransactions(long firstUser, int userSpan, int count, LocalDateTime start) {
+        List<Object[]> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long userId = userSpan == 1 ? firstUser : firstUser + (i % userSpan);
+            batch.add(new Object[] {nextTransactionId++, userId, 10, 0, Timestamp.valueOf(start.plusSeconds(i)), "CASHIN", "seed " + i});
+        }
+        jdbcTemplate.batchUpdate("insert into transactions (id, user_id, cash_in, cash_out, transaction_date, type, notes) "
+                + "values (?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+}
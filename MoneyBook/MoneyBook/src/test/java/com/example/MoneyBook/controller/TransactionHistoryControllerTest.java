@@ -0,0 +1,126 @@
+package com.example.MoneyBook.controller;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.UserRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransactionHistoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void returnsTransactionsWithoutEmbeddedUser() throws Exception {
+        Long userId = userRepository.save(new User("history-" + System.nanoTime(), "secret", new BigDecimal("10.00"))).getId();
+        for (int i = 1; i <= 3; i++) {
+            mockMvc.perform(post("/api/transactions/deposit").contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"user\":{\"id\":" + userId + "},\"cashIn\":" + i + ",\"notes\":\"n" + i + "\"}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.userId").value(userId))
+                    .andExpect(jsonPath("$.user").doesNotExist());
+        }
+
+        mockMvc.perform(get("/api/transactions/user/" + userId).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].notes").value("n3"))
+                .andExpect(jsonPath("$[0].userId").value(userId))
+                .andExpect(jsonPath("$[0].type").value("CASHIN"))
+                .andExpect(jsonPath("$[0].user").doesNotExist());
+
+        mockMvc.perform(get("/api/transactions/recent/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[2].cashIn").value(1));
+    }
+
+    @Test
+    void searchesNotes() throws Exception {
+        Long userId = userRepository.save(new User("search-" + System.nanoTime(), "secret", new BigDecimal("100.00"))).getId();
+        String[] notes = {"Coffee beans", "Weekly groceries", "Coffee with Sam"};
+        for (String note : notes) {
+            mockMvc.perform(post("/api/transactions/withdraw").contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"user\":{\"id\":" + userId + "},\"cashOut\":1,\"notes\":\"" + note + "\"}"))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/api/transactions/search/" + userId).param("q", "coff"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].notes").value("Coffee with Sam"))
+                .andExpect(jsonPath("$[1].notes").value("Coffee beans"));
+        mockMvc.perform(get("/api/transactions/search/" + userId).param("q", "coffee sam").param("type", "CASHOUT"))
+                .andExpect(jsonPath("$", hasSize(1)));
+        mockMvc.perform(get("/api/transactions/search/" + userId).param("q", "coffee").param("type", "CASHIN"))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void conditionalGetsAreNotModifiedUntilTheLedgerChanges() throws Exception {
+        Long userId = userRepository.save(new User("etag-" + System.nanoTime(), "secret", new BigDecimal("10.00"))).getId();
+        String deposit = "{\"user\":{\"id\":" + userId + "},\"cashIn\":5}";
+        mockMvc.perform(post("/api/transactions/deposit").contentType(MediaType.APPLICATION_JSON).content(deposit))
+                .andExpect(status().isOk());
+
+        String history = mockMvc.perform(get("/api/transactions/user/" + userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String user = mockMvc.perform(get("/api/users/" + userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/transactions/user/" + userId).header(HttpHeaders.IF_NONE_MATCH, history))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, history));
+        mockMvc.perform(get("/api/transactions/recent/" + userId).header(HttpHeaders.IF_NONE_MATCH, history))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/users/" + userId).header(HttpHeaders.IF_NONE_MATCH, user))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/transactions/deposit").contentType(MediaType.APPLICATION_JSON).content(deposit))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/transactions/user/" + userId).header(HttpHeaders.IF_NONE_MATCH, history))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(history)))
+                .andExpect(jsonPath("$", hasSize(2)));
+        String changedUser = mockMvc.perform(get("/api/users/" + userId).header(HttpHeaders.IF_NONE_MATCH, user))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(20.0))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // A password change alters the user body without touching the ledger; only its version is revealed
+        mockMvc.perform(put("/api/users/" + userId + "/password").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"password\":\"changed\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/" + userId).header(HttpHeaders.IF_NONE_MATCH, changedUser))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"u" + userId + "-v2-p1\""));
+    }
+}
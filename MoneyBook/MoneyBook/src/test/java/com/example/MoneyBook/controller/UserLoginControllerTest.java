@@ -0,0 +1,76 @@
+package com.example.MoneyBook.controller;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.UserRepository;
+import com.example.MoneyBook.service.CredentialCache;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserLoginControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CredentialCache credentialCache;
+
+    @Test
+    void passwordChangeRetiresTheCachedPassword() throws Exception {
+        String username = "login-" + System.nanoTime();
+        Long userId = userRepository.save(new User(username, "old-secret", new BigDecimal("10.00"))).getId();
+
+        login(username, "old-secret").andExpect(status().isOk()).andExpect(jsonPath("$.id").value(userId));
+        assertNotNull(credentialCache.verify(username, "old-secret"));
+        // Answered from the credential cache
+        login(username, "old-secret").andExpect(status().isOk()).andExpect(jsonPath("$.id").value(userId));
+
+        mockMvc.perform(put("/api/users/" + userId + "/password").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"password\":\"new-secret\"}"))
+                .andExpect(status().isOk());
+
+        login(username, "old-secret").andExpect(status().isUnauthorized());
+        login(username, "new-secret").andExpect(status().isOk()).andExpect(jsonPath("$.id").value(userId));
+        login(username, "new-secret").andExpect(status().isOk());
+    }
+
+    @Test
+    void cachedPasswordFromBeforeAChangeIsRejected() throws Exception {
+        String username = "login-race-" + System.nanoTime();
+        Long userId = userRepository.save(new User(username, "old-secret", new BigDecimal("10.00"))).getId();
+
+        mockMvc.perform(put("/api/users/" + userId + "/password").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"password\":\"new-secret\"}"))
+                .andExpect(status().isOk());
+        // What a login that read the row before the change caches once the change has invalidated it
+        credentialCache.put(username, "old-secret", userId, 0);
+
+        login(username, "old-secret").andExpect(status().isUnauthorized());
+        login(username, "new-secret").andExpect(status().isOk()).andExpect(jsonPath("$.id").value(userId));
+    }
+
+    private ResultActions login(String username, String password) throws Exception {
+        return mockMvc.perform(post("/api/users/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.MoneyBook.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.MoneyBook.model.BalanceSnapshot;
+import com.example.MoneyBook.model.LedgerEntry;
+import com.example.MoneyBook.model.Transaction;
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.BalanceSnapshotRepository;
+import com.example.MoneyBook.repo.LedgerEntryRepository;
+import com.example.MoneyBook.repo.UserRepository;
+
+@SpringBootTest(properties = {
+        "ledger.mode=append-only",
+        "ledger.snapshot.threshold=3",
+        "ledger.snapshot.max-tail=6",
+        "ledger.snapshot.interval=PT1H"
+})
+@ActiveProfiles("test")
+class AppendOnlyBalanceStoreTest {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private AppendOnlyBalanceStore balanceStore;
+
+    @Autowired
+    private BalanceSnapshotJob snapshotJob;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Test
+    void postsAppendEntriesAndLeaveUserRowUntouched() {
+        Long userId = newUser();
+        Transaction deposit = ledgerService.deposit(userId, new BigDecimal("30.00"), null);
+        ledgerService.withdraw(userId, new BigDecimal("20.00"), null);
+        ledgerService.updateTransaction(deposit.getId(), new BigDecimal("40.00"), BigDecimal.ZERO, "edited");
+        ledgerService.deleteTransaction(deposit.getId());
+
+        assertEquals(0, new BigDecimal("80.00").compareTo(ledgerService.balanceOf(userId)));
+        assertEquals(0, new BigDecimal("100.00").compareTo(userRepository.findById(userId).orElseThrow().getBalance()));
+        assertEquals(4, ledgerEntryRepository.findLastSeq(userId));
+        assertEquals(4, ledgerService.versionOf(userId));
+        assertEquals(0, new BigDecimal("-20.00").compareTo(ledgerEntryRepository.sumAfter(userId, 0)));
+    }
+
+    @Test
+    void withdrawalBeyondBalanceIsRejected() {
+        Long userId = newUser();
+        LedgerException e = assertThrows(LedgerException.class,
+                () -> ledgerService.withdraw(userId, new BigDecimal("100.01"), null));
+        assertEquals(LedgerException.Reason.INSUFFICIENT_FUNDS, e.getReason());
+        assertEquals(0, ledgerEntryRepository.findLastSeq(userId));
+    }
+
+    @Test
+    void rolledBackPostsDoNotCountTowardsSnapshots() {
+        Long userId = newUser();
+        ledgerService.deposit(userId, new BigDecimal("5.00"), null, "once");
+        // Each retry appends an entry, then rolls back on the stored idempotency key
+        for (int i = 0; i < 3; i++) {
+            assertThrows(DataIntegrityViolationException.class,
+                    () -> ledgerService.deposit(userId, new BigDecimal("5.00"), null, "once"));
+        }
+
+        assertEquals(1, ledgerEntryRepository.findLastSeq(userId));
+        assertTrue(!balanceStore.usersDueForSnapshot().contains(userId));
+    }
+
+    @Test
+    void snapshotShortensTailWithoutChangingBalance() {
+        Long userId = newUser();
+        for (int i = 0; i < 4; i++) {
+            ledgerService.deposit(userId, new BigDecimal("5.00"), null);
+        }
+        assertTrue(balanceStore.usersDueForSnapshot().contains(userId));
+
+        snapshotJob.snapshotDueUsers();
+
+        BalanceSnapshot snapshot = balanceSnapshotRepository.findById(userId).orElseThrow();
+        assertEquals(4, snapshot.getLastSeq());
+        assertEquals(0, new BigDecimal("120.00").compareTo(snapshot.getBalance()));
+        assertTrue(!balanceStore.usersDueForSnapshot().contains(userId));
+
+        ledgerService.adjustBalance(userId, new BigDecimal("200.00"));
+        assertEquals(0, new BigDecimal("200.00").compareTo(ledgerService.balanceOf(userId)));
+        assertEquals(0, new BigDecimal("80.00").compareTo(ledgerEntryRepository.sumAfter(userId, snapshot.getLastSeq())));
+        assertEquals(LedgerEntry.Kind.ADJUSTMENT, ledgerEntryRepository.findAll().stream()
+                .filter(e -> e.getUserId().equals(userId) && e.getSeq() == 5)
+                .findFirst().orElseThrow().getKind());
+    }
+
+    @Test
+    void postReachingMaxTailSnapshotsWithoutTheJob() {
+        Long userId = newUser();
+        for (int i = 0; i < 7; i++) {
+            ledgerService.deposit(userId, new BigDecimal("5.00"), null);
+        }
+
+        BalanceSnapshot snapshot = balanceSnapshotRepository.findById(userId).orElseThrow();
+        assertEquals(6, snapshot.getLastSeq());
+        assertEquals(0, new BigDecimal("130.00").compareTo(snapshot.getBalance()));
+        assertEquals(0, new BigDecimal("135.00").compareTo(ledgerService.balanceOf(userId)));
+        assertTrue(!balanceStore.usersDueForSnapshot().contains(userId));
+    }
+
+    private Long newUser() {
+        return userRepository.save(new User("ledger-" + System.nanoTime(), "pw", new BigDecimal("100.00"))).getId();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.MoneyBook.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * The load of {@link HotUserLedgerBenchmarkTest} against the append-only
+ * ledger, with snapshots taken as in production.
+ */
+@SpringBootTest(properties = "ledger.mode=append-only")
+@ActiveProfiles("test")
+class AppendOnlyHotUserLedgerBenchmarkTest extends HotUserLedgerBenchmarkTest {
+}
@@ -0,0 +1,17 @@
+package com.example.MoneyBook.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * The contention scenario of {@link LedgerServiceStressTest} against the
+ * append-only ledger, with a low threshold so snapshots interleave with posts.
+ */
+@SpringBootTest(properties = {
+        "ledger.mode=append-only",
+        "ledger.snapshot.threshold=5",
+        "ledger.snapshot.interval=PT0.05S"
+})
+@ActiveProfiles("test")
+class AppendOnlyLedgerStressTest extends LedgerServiceStressTest {
+}
@@ -0,0 +1,17 @@
+package com.example.MoneyBook.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * The transfer scenarios of {@link LedgerTransferTest} against the
+ * append-only ledger, with snapshots interleaving with the transfers.
+ */
+@SpringBootTest(properties = {
+        "ledger.mode=append-only",
+        "ledger.snapshot.threshold=5",
+        "ledger.snapshot.interval=PT0.05S"
+})
+@ActiveProfiles("test")
+class AppendOnlyLedgerTransferTest extends LedgerTransferTest {
+}
@@ -0,0 +1,52 @@
+package com.example.MoneyBook.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class CredentialCacheTest {
+
+    @Test
+    void verifiesOnlyMatchingPasswords() {
+        CredentialCache cache = new CredentialCache(10, Duration.ofMinutes(1));
+        cache.put("alice", "secret", 7L, 3);
+
+        assertEquals(new CredentialCache.Verified(7L, 3), cache.verify("alice", "secret"));
+        assertNull(cache.verify("alice", "wrong"));
+        assertNull(cache.verify("bob", "secret"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxSize() {
+        CredentialCache cache = new CredentialCache(2, Duration.ofMinutes(1));
+        cache.put("a", "p", 1L, 0);
+        cache.put("b", "p", 2L, 0);
+        cache.verify("a", "p");
+        cache.put("c", "p", 3L, 0);
+
+        assertEquals(2, cache.size());
+        assertEquals(1L, cache.verify("a", "p").userId());
+        assertNull(cache.verify("b", "p"));
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() throws InterruptedException {
+        CredentialCache cache = new CredentialCache(10, Duration.ofMillis(20));
+        cache.put("alice", "secret", 7L, 0);
+        Thread.sleep(40);
+
+        assertNull(cache.verify("alice", "secret"));
+    }
+
+    @Test
+    void invalidateDropsEntry() {
+        CredentialCache cache = new CredentialCache(10, Duration.ofMinutes(1));
+        cache.put("alice", "secret", 7L, 0);
+        cache.invalidate("alice");
+
+        assertNull(cache.verify("alice", "secret"));
+    }
+}
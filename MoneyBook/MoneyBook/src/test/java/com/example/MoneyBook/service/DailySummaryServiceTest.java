@@ -0,0 +1,56 @@
+package com.example.MoneyBook.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.MoneyBook.model.DailySummary;
+import com.example.MoneyBook.model.Transaction;
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.UserRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DailySummaryServiceTest {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private DailySummaryService dailySummaryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void rollupsFollowWritesUpdatesAndDeletes() {
+        Long userId = userRepository.save(new User("summary-user", "pw", new BigDecimal("100.00"))).getId();
+        LocalDate today = LocalDate.now();
+
+        Transaction in = ledgerService.deposit(userId, new BigDecimal("40.00"), null);
+        Transaction out = ledgerService.withdraw(userId, new BigDecimal("15.00"), null);
+        ledgerService.deposit(userId, new BigDecimal("5.00"), null);
+        assertDay(userId, today, "45.00", "15.00", 3);
+
+        ledgerService.updateTransaction(in.getId(), new BigDecimal("30.00"), BigDecimal.ZERO, "edited");
+        assertDay(userId, today, "35.00", "15.00", 3);
+
+        ledgerService.deleteTransaction(out.getId());
+        assertDay(userId, today, "35.00", "0.00", 2);
+    }
+
+    private void assertDay(Long userId, LocalDate day, String cashIn, String cashOut, long count) {
+        List<DailySummary> rollups = dailySummaryService.findRange(userId, day, day);
+        assertEquals(1, rollups.size());
+        assertEquals(0, new BigDecimal(cashIn).compareTo(rollups.get(0).getCashIn()));
+        assertEquals(0, new BigDecimal(cashOut).compareTo(rollups.get(0).getCashOut()));
+        assertEquals(count, rollups.get(0).getTransactionCount());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.MoneyBook.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.UserRepository;
+
+/**
+ * Ledger write throughput with every thread posting to one user, compared with
+ * the same load spread over many users. Posts for one user are serialized on
+ * that user's row lock in both ledger modes, so the hot case shows how long
+ * each mode holds the lock per post. {@link AppendOnlyHotUserLedgerBenchmarkTest}
+ * runs the same load against the append-only ledger.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest='*HotUserLedgerBenchmarkTest' -Dbench.threads=16
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class HotUserLedgerBenchmarkTest {
+
+    private static final int THREADS = Integer.getInteger("bench.threads", 16);
+    private static final int SPREAD_USERS = Integer.getInteger("bench.users", 64);
+    private static final int POSTS_PER_THREAD = Integer.getInteger("bench.posts", 1_000);
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${ledger.mode}")
+    private String mode;
+
+    @Test
+    void hotUserThroughput() throws Exception {
+        Long[] hot = users(1);
+        Long[] spread = users(SPREAD_USERS);
+
+        measure(spread); // warm up
+        double hotRate = measure(hot);
+        double spreadRate = measure(spread);
+
+        System.out.printf("%s ledger, %d threads: 1 user %8.0f posts/s, %d users %8.0f posts/s%n",
+                mode, THREADS, hotRate, SPREAD_USERS, spreadRate);
+    }
+
+    private Long[] users(int count) {
+        Long[] ids = new Long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = userRepository.save(new User("hot-bench-" + System.nanoTime(), "pw", new BigDecimal("1000.00"))).getId();
+        }
+        return ids;
+    }
+
+    // Deposits and withdrawals alternate, so every withdrawal runs the funds check
+    private double measure(Long[] userIds) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < POSTS_PER_THREAD; i++) {
+                    Long userId = userIds[(thread + i) % userIds.length];
+                    if (i % 2 == 0) {
+                        ledgerService.deposit(userId, BigDecimal.ONE, null);
+                    } else {
+                        ledgerService.withdraw(userId, BigDecimal.ONE, null);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        return (double) THREADS * POSTS_PER_THREAD / ((System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.MoneyBook.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.TransactionRepository;
+import com.example.MoneyBook.repo.UserRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyServiceTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private IdempotencyService.Outcome deposit(Long userId, String key, String amount) {
+        BigDecimal value = new BigDecimal(amount);
+        return idempotencyService.execute(userId, key, "deposit", value, "salary",
+                () -> ledgerService.deposit(userId, value, "salary", key));
+    }
+
+    private Long newUser() {
+        return userRepository.save(new User("idem-" + System.nanoTime(), "pw", BigDecimal.ZERO)).getId();
+    }
+
+    @Test
+    void replayReturnsOriginalTransaction() {
+        Long userId = newUser();
+
+        IdempotencyService.Outcome first = deposit(userId, "key-1", "10.00");
+        IdempotencyService.Outcome second = deposit(userId, "key-1", "10.00");
+
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertEquals(first.view().id(), second.view().id());
+        assertEquals(0, new BigDecimal("10.00").compareTo(ledgerService.balanceOf(userId)));
+    }
+
+    @Test
+    void concurrentDuplicatesRunOnce() throws Exception {
+        Long userId = newUser();
+        int threads = 8;
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<IdempotencyService.Outcome>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return idempotencyService.execute(userId, "same", "deposit", BigDecimal.ONE, null, () -> {
+                        executions.incrementAndGet();
+                        return ledgerService.deposit(userId, BigDecimal.ONE, null, "same");
+                    });
+                }));
+            }
+            start.countDown();
+            Long id = null;
+            for (Future<IdempotencyService.Outcome> result : results) {
+                Long seen = result.get().view().id();
+                if (id == null) {
+                    id = seen;
+                }
+                assertEquals(id, seen);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(1, executions.get());
+        assertEquals(1, transactionRepository.findLatestByUser(userId, Limit.of(10)).size());
+        assertEquals(0, BigDecimal.ONE.compareTo(ledgerService.balanceOf(userId)));
+    }
+
+    @Test
+    void storedKeyCatchesDuplicateAfterEviction() {
+        Long userId = newUser();
+        IdempotencyService.Outcome first = deposit(userId, "evicted", "7.50");
+
+        idempotencyService.forgetAll();
+        IdempotencyService.Outcome second = deposit(userId, "evicted", "7.50");
+
+        assertTrue(second.replayed());
+        assertEquals(first.view().id(), second.view().id());
+        assertEquals(0, new BigDecimal("7.50").compareTo(ledgerService.balanceOf(userId)));
+    }
+
+    @Test
+    void keyReusedForDifferentRequestIsRejected() {
+        Long userId = newUser();
+        deposit(userId, "reused", "1.00");
+
+        LedgerException fromMemory = assertThrows(LedgerException.class, () -> deposit(userId, "reused", "2.00"));
+        assertEquals(LedgerException.Reason.IDEMPOTENCY_KEY_REUSED, fromMemory.getReason());
+
+        idempotencyService.forgetAll();
+        LedgerException fromDatabase = assertThrows(LedgerException.class, () -> deposit(userId, "reused", "2.00"));
+        assertEquals(LedgerException.Reason.IDEMPOTENCY_KEY_REUSED, fromDatabase.getReason());
+        assertEquals(0, BigDecimal.ONE.compareTo(ledgerService.balanceOf(userId)));
+    }
+
+    @Test
+    void failedRequestCanBeRetried() {
+        Long userId = newUser();
+        BigDecimal amount = new BigDecimal("5.00");
+
+        LedgerException refused = assertThrows(LedgerException.class, () -> idempotencyService.execute(
+                userId, "retry", "withdraw", amount, null, () -> ledgerService.withdraw(userId, amount, null, "retry")));
+        assertEquals(LedgerException.Reason.INSUFFICIENT_FUNDS, refused.getReason());
+
+        ledgerService.deposit(userId, amount, null);
+        IdempotencyService.Outcome retried = idempotencyService.execute(
+                userId, "retry", "withdraw", amount, null, () -> ledgerService.withdraw(userId, amount, null, "retry"));
+        assertFalse(retried.replayed());
+        assertEquals(0, BigDecimal.ZERO.compareTo(ledgerService.balanceOf(userId)));
+    }
+}
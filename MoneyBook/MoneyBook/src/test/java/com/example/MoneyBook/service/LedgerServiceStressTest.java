@@ -0,0 +1,106 @@
+package com.example.MoneyBook.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.MoneyBook.model.Transaction;
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.TransactionRepository;
+import com.example.MoneyBook.repo.UserRepository;
+
+/**
+ * Hammers a handful of users from many threads with deposits, withdrawals,
+ * updates and deletes, then checks that every balance equals its starting
+ * value plus the net effect of the transactions that remain.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LedgerServiceStressTest {
+
+    private static final int USERS = 4;
+    private static final int THREADS = 16;
+    private static final int OPS_PER_THREAD = Integer.getInteger("stress.ops", 150);
+    private static final BigDecimal START = new BigDecimal("50.00");
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void balancesAreExactUnderContention() throws Exception {
+        Long[] userIds = new Long[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = userRepository.save(new User("stress-" + System.nanoTime() + "-" + i, "pw", START)).getId();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                List<Long> mine = new ArrayList<>();
+                for (int op = 0; op < OPS_PER_THREAD; op++) {
+                    int u = random.nextInt(USERS);
+                    BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 20));
+                    int kind = random.nextInt(10);
+                    try {
+                        if (kind < 4) {
+                            mine.add(ledgerService.deposit(userIds[u], amount, null).getId());
+                        } else if (kind < 8) {
+                            mine.add(ledgerService.withdraw(userIds[u], amount, null).getId());
+                        } else if (!mine.isEmpty() && kind == 8) {
+                            Long id = mine.get(random.nextInt(mine.size()));
+                            Transaction current = transactionRepository.findById(id).orElseThrow();
+                            boolean cashIn = current.getType() == Transaction.TransactionType.CASHIN;
+                            ledgerService.updateTransaction(id, cashIn ? amount : BigDecimal.ZERO,
+                                    cashIn ? BigDecimal.ZERO : amount, "edited");
+                        } else if (!mine.isEmpty()) {
+                            ledgerService.deleteTransaction(mine.remove(random.nextInt(mine.size())));
+                        }
+                    } catch (LedgerException e) {
+                        assertEquals(LedgerException.Reason.INSUFFICIENT_FUNDS, e.getReason());
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        for (int u = 0; u < USERS; u++) {
+            Long userId = userIds[u];
+            BigDecimal net = transactionRepository.findAll().stream()
+                    .filter(t -> t.getUserId().equals(userId))
+                    .map(LedgerService::signedAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal balance = ledgerService.balanceOf(userId);
+            assertEquals(0, START.add(net).compareTo(balance), "balance of user " + userId);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.MoneyBook.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.MoneyBook.dto.TransactionView;
+import com.example.MoneyBook.dto.TransferResponse;
+import com.example.MoneyBook.model.Transaction;
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.TransactionRepository;
+import com.example.MoneyBook.repo.UserRepository;
+
+/**
+ * Transfers between users, including many threads moving money in both
+ * directions between a few hot accounts. Locks are taken in id order, so no
+ * transfer may fail with a deadlock or lock timeout, and the money in the
+ * system must stay the same.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LedgerTransferTest {
+
+    private static final int HOT_ACCOUNTS = 3;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = Integer.getInteger("stress.ops", 150);
+    private static final BigDecimal START = new BigDecimal("100.00");
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Long newUser(BigDecimal balance) {
+        return userRepository.save(new User("transfer-" + System.nanoTime(), "pw", balance)).getId();
+    }
+
+    @Test
+    void transferRecordsLinkedLegs() {
+        Long from = newUser(new BigDecimal("30.00"));
+        Long to = newUser(BigDecimal.ZERO);
+
+        TransferResponse response = ledgerService.transfer(from, to, new BigDecimal("12.50"), "rent share");
+
+        TransactionView debit = response.debit();
+        TransactionView credit = response.credit();
+        assertEquals(Transaction.TransactionType.TRANSFER, debit.type());
+        assertEquals(credit.id(), debit.linkedTransactionId());
+        assertEquals(debit.id(), credit.linkedTransactionId());
+        assertEquals(0, new BigDecimal("17.50").compareTo(ledgerService.balanceOf(from)));
+        assertEquals(0, new BigDecimal("12.50").compareTo(ledgerService.balanceOf(to)));
+        List<TransactionView> stored = transactionRepository.findLatestByUser(to, Limit.of(10));
+        assertEquals(1, stored.size());
+        assertEquals(debit.id(), stored.get(0).linkedTransactionId());
+
+        LedgerException insufficient = assertThrows(LedgerException.class,
+                () -> ledgerService.transfer(from, to, new BigDecimal("17.51"), null));
+        assertEquals(LedgerException.Reason.INSUFFICIENT_FUNDS, insufficient.getReason());
+        LedgerException self = assertThrows(LedgerException.class,
+                () -> ledgerService.transfer(from, from, BigDecimal.ONE, null));
+        assertEquals(LedgerException.Reason.INVALID_TRANSFER, self.getReason());
+        LedgerException edit = assertThrows(LedgerException.class,
+                () -> ledgerService.deleteTransaction(debit.id()));
+        assertEquals(LedgerException.Reason.INVALID_TRANSFER, edit.getReason());
+        assertEquals(0, new BigDecimal("17.50").compareTo(ledgerService.balanceOf(from)));
+    }
+
+    @Test
+    void oppositeTransfersBetweenHotAccountsNeverDeadlock() throws Exception {
+        Long[] userIds = new Long[HOT_ACCOUNTS];
+        for (int i = 0; i < HOT_ACCOUNTS; i++) {
+            userIds[i] = newUser(START);
+        }
+        AtomicLong completed = new AtomicLong();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int op = 0; op < TRANSFERS_PER_THREAD; op++) {
+                    int from = random.nextInt(HOT_ACCOUNTS);
+                    int to = (from + random.nextInt(1, HOT_ACCOUNTS)) % HOT_ACCOUNTS;
+                    try {
+                        ledgerService.transfer(userIds[from], userIds[to],
+                                BigDecimal.valueOf(random.nextInt(1, 40)), null);
+                        completed.incrementAndGet();
+                    } catch (LedgerException e) {
+                        assertEquals(LedgerException.Reason.INSUFFICIENT_FUNDS, e.getReason());
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        BigDecimal total = BigDecimal.ZERO;
+        long legs = 0;
+        for (Long userId : userIds) {
+            List<TransactionView> history = transactionRepository.findLatestByUser(userId, Limit.unlimited());
+            BigDecimal net = history.stream()
+                    .map(view -> view.cashIn().subtract(view.cashOut()))
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal balance = ledgerService.balanceOf(userId);
+            assertEquals(0, START.add(net).compareTo(balance), "balance of user " + userId);
+            assertTrue(balance.signum() >= 0, "balance of user " + userId);
+            total = total.add(balance);
+            legs += history.size();
+        }
+        assertEquals(0, START.multiply(BigDecimal.valueOf(HOT_ACCOUNTS)).compareTo(total));
+        assertEquals(2 * completed.get(), legs);
+    }
+}
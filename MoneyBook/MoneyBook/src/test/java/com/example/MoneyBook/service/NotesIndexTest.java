@@ -0,0 +1,106 @@
+package com.example.MoneyBook.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import com.example.MoneyBook.dto.TransactionView;
+import com.example.MoneyBook.model.Transaction.TransactionType;
+
+class NotesIndexTest {
+
+    private static final Long USER = 7L;
+
+    private final NotesIndex index = new NotesIndex(new SimpleDriverDataSource(), 1000);
+
+    @Test
+    void tokenizesIntoDistinctLowerCaseWords() {
+        assertEquals(Set.of("lunch", "with", "café", "team", "2"), NotesIndex.tokenize("Lunch with Café-team, lunch #2"));
+    }
+
+    @Test
+    void matchesEveryTermAsWordPrefixNewestFirst() {
+        index.index(USER, 1, date(1), TransactionType.CASHOUT, "Groceries at market");
+        index.index(USER, 2, date(2), TransactionType.CASHOUT, "Grocery run, market street");
+        index.index(USER, 3, date(3), TransactionType.CASHIN, "Salary");
+        index.index(8L, 4, date(3), TransactionType.CASHOUT, "groceries for someone else");
+
+        assertEquals(List.of(2L, 1L), search("groc"));
+        assertEquals(List.of(2L, 1L), search("MARKET gro"));
+        assertEquals(List.of(2L), search("grocery market"));
+        assertEquals(List.of(), search("groc salary"));
+        assertEquals(List.of(1L), index.search(USER, "groc", null, LocalDate.of(2026, 1, 1), null, 10));
+        assertEquals(List.of(3L), index.search(USER, "sal", null, null, TransactionType.CASHIN, 10));
+        assertEquals(List.of(2L), index.search(USER, "groc", null, null, null, 1));
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        index.index(USER, 1, date(1), TransactionType.CASHOUT, "taxi home");
+        index.index(USER, 2, date(2), TransactionType.CASHOUT, "taxi airport");
+
+        TransactionView edited = new TransactionView(1L, USER, BigDecimal.ZERO, BigDecimal.TEN, date(1),
+                TransactionType.CASHOUT, "bus home", null);
+        index.onLedgerChanged(new LedgerChangedEvent(USER, List.of(edited), List.of(2L)));
+
+        assertEquals(List.of(), search("taxi"));
+        assertEquals(List.of(1L), search("bus"));
+    }
+
+    @Test
+    void changesCommittedDuringRebuildWinOverTheSnapshot() {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true).build();
+        try {
+            JdbcTemplate jdbc = new JdbcTemplate(database);
+            jdbc.execute("create table transactions (id bigint primary key, user_id bigint, "
+                    + "transaction_date timestamp, type varchar(16), notes varchar(500))");
+            jdbc.update("insert into transactions values (1, 7, ?, 'CASHOUT', 'taxi home'), "
+                    + "(2, 7, ?, 'CASHOUT', 'taxi airport')", date(1), date(2));
+
+            // While the snapshot is streamed, row 1 is deleted and row 2 edited
+            NotesIndex rebuilding = new NotesIndex(database, 1) {
+                private boolean changed;
+
+                @Override
+                void index(Long userId, long id, LocalDateTime date, TransactionType type, String notes) {
+                    if (!changed) {
+                        changed = true;
+                        onLedgerChanged(new LedgerChangedEvent(USER, List.of(new TransactionView(2L, USER,
+                                BigDecimal.ZERO, BigDecimal.TEN, date(2), TransactionType.CASHOUT, "bus airport", null)),
+                                List.of(1L)));
+                    }
+                    super.index(userId, id, date, type, notes);
+                }
+            };
+            rebuilding.rebuild();
+
+            assertEquals(List.of(), rebuilding.search(USER, "taxi", null, null, null, 10));
+            assertEquals(List.of(2L), rebuilding.search(USER, "bus", null, null, null, 10));
+
+            rebuilding.onLedgerChanged(new LedgerChangedEvent(USER, List.of(), List.of(2L)));
+            assertEquals(List.of(), rebuilding.search(USER, "bus", null, null, null, 10));
+        } finally {
+            database.shutdown();
+        }
+    }
+
+    private List<Long> search(String query) {
+        return index.search(USER, query, null, null, null, 10);
+    }
+
+    private static LocalDateTime date(int day) {
+        return LocalDateTime.of(2026, 1, day, 12, 0);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.MoneyBook.service;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.UserRepository;
+
+/**
+ * Two H2 databases stand in for primary and replica. Nothing replicates
+ * between them, so reads that reach the replica see an empty schema, which
+ * makes the route of each read visible.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "datasource.replica.enabled=true",
+        "datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "datasource.replica.username=sa",
+        "datasource.replica.password=",
+        "datasource.replica.driver-class-name=org.h2.Driver"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private static boolean schemaCopied;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RecentWriters recentWriters;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void copySchemaToReplica() {
+        if (schemaCopied) {
+            return;
+        }
+        List<String> ddl = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT NODATA", String.class);
+        JdbcTemplate replica = new JdbcTemplate(new SimpleDriverDataSource(new org.h2.Driver(), REPLICA_URL, "sa", ""));
+        ddl.forEach(replica::execute);
+        schemaCopied = true;
+    }
+
+    private String databaseName(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> new JdbcTemplate(dataSource).queryForObject("select database()", String.class));
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertEquals("ROUTING-REPLICA", databaseName(true).toUpperCase());
+        assertEquals("ROUTING-PRIMARY", databaseName(false).toUpperCase());
+        assertEquals("ROUTING-PRIMARY", ReadRoutingDataSource.onPrimary(() -> databaseName(true)).toUpperCase());
+    }
+
+    @Test
+    void recentWriterReadsFromThePrimary() throws Exception {
+        Long userId = userRepository.save(new User("routing-" + System.nanoTime(), "pw", BigDecimal.TEN)).getId();
+        mockMvc.perform(post("/api/transactions/deposit").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"user\":{\"id\":" + userId + "},\"cashIn\":5}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/transactions/recent/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        // Once the window has passed, history is read from the (here never updated) replica
+        recentWriters.forgetAll();
+        mockMvc.perform(get("/api/transactions/recent/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        // User lookups fill a shared cache, so they always load from the primary
+        mockMvc.perform(get("/api/users/" + userId))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.MoneyBook.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ThumbnailServiceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void decodesImagesWithinThePixelLimit() throws IOException {
+        Path file = dir.resolve("small.png");
+        ImageIO.write(new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB), "png", file.toFile());
+
+        BufferedImage image = ThumbnailService.decode(file);
+        assertEquals(640, image.getWidth());
+        assertEquals(480, image.getHeight());
+    }
+
+    @Test
+    void refusesImagesDeclaringMorePixelsThanTheLimit() throws IOException {
+        // A few dozen bytes claiming 100000 x 100000 pixels; decoding it would need 40 GB
+        Path file = dir.resolve("bomb.png");
+        Files.write(file, pngHeader(100_000, 100_000));
+
+        assertNull(ThumbnailService.decode(file));
+    }
+
+    @Test
+    void ignoresContentImageIoCannotRead() throws IOException {
+        Path file = dir.resolve("receipt.svg");
+        Files.writeString(file, "<svg xmlns=\"http://www.w3.org/2000/svg\"/>");
+
+        assertNull(ThumbnailService.decode(file));
+    }
+
+    // PNG signature, IHDR and IEND: enough for a reader to report the dimensions
+    private static byte[] pngHeader(int width, int height) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'});
+        ByteArrayOutputStream ihdr = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(ihdr);
+        header.writeInt(width);
+        header.writeInt(height);
+        header.write(new byte[] {8, 2, 0, 0, 0}); // 8-bit RGB, no interlace
+        chunk(out, "IHDR", ihdr.toByteArray());
+        chunk(out, "IEND", new byte[0]);
+        return bytes.toByteArray();
+    }
+
+    private static void chunk(DataOutputStream out, String type, byte[] data) throws IOException {
+        byte[] name = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(name);
+        crc.update(data);
+        out.writeInt(data.length);
+        out.write(name);
+        out.write(data);
+        out.writeInt((int) crc.getValue());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.MoneyBook.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class TransactionPartitionManagerTest {
+
+    @Test
+    void initialPartitioningCoversEveryMonthPlusOverflow() {
+        assertEquals("alter table transactions partition by range columns (transaction_date) ("
+                        + "partition p202611 values less than ('2026-12-01 00:00:00'), "
+                        + "partition p202612 values less than ('2027-01-01 00:00:00'), "
+                        + "partition p202701 values less than ('2027-02-01 00:00:00'), "
+                        + "partition pmax values less than (maxvalue))",
+                TransactionPartitionManager.initialPartitioning(YearMonth.of(2026, 11), YearMonth.of(2027, 1)));
+    }
+
+    @Test
+    void newMonthsAreSplitOffTheOverflowPartition() {
+        assertEquals("alter table transactions reorganize partition pmax into ("
+                        + "partition p202702 values less than ('2027-03-01 00:00:00'), "
+                        + "partition pmax values less than (maxvalue))",
+                TransactionPartitionManager.addMonths(List.of(YearMonth.of(2027, 2))));
+    }
+
+    @Test
+    void startupLeavesAnUnpartitionedTableAlone() {
+        MySql mysql = new MySql("MySQL");
+        TransactionPartitionManager manager = new TransactionPartitionManager(mysql, 3, 24);
+
+        manager.initialize();
+        manager.maintain();
+
+        assertFalse(manager.isActive());
+        assertEquals(List.of(), mysql.statements);
+    }
+
+    @Test
+    void convertDropsForeignKeysRekeysAndPartitions() {
+        MySql mysql = new MySql("MySQL");
+        TransactionPartitionManager manager = new TransactionPartitionManager(mysql, 3, 24);
+        manager.initialize();
+
+        manager.convert();
+
+        assertTrue(manager.isActive());
+        assertEquals(5, mysql.statements.size());
+        assertEquals(TransactionPartitionManager.CREATE_ARCHIVE, mysql.statements.get(0));
+        assertEquals("alter table transactions_archive add column linked_transaction_id bigint", mysql.statements.get(1));
+        assertEquals("alter table transactions drop foreign key `FKqwv7rmvc8va8rep7piikrojds`", mysql.statements.get(2));
+        assertEquals("alter table transactions drop primary key, add primary key (id, transaction_date)", mysql.statements.get(3));
+        assertTrue(mysql.statements.get(4).startsWith("alter table transactions partition by range columns (transaction_date) ("
+                + "partition p202601 values less than ('2026-02-01 00:00:00'), "), mysql.statements.get(4));
+    }
+
+    @Test
+    void startupActivatesOnAPartitionedTable() {
+        MySql mysql = new MySql("MySQL");
+        mysql.partitions.addAll(List.of("p202601", TransactionPartitionManager.OVERFLOW));
+        TransactionPartitionManager manager = new TransactionPartitionManager(mysql, 3, 24);
+
+        manager.initialize();
+
+        assertTrue(manager.isActive());
+        assertEquals(List.of(YearMonth.of(2026, 1)), manager.months());
+        assertEquals(List.of(), mysql.statements);
+    }
+
+    @Test
+    void convertNeedsMySql() {
+        MySql h2 = new MySql("H2");
+        TransactionPartitionManager manager = new TransactionPartitionManager(h2, 3, 24);
+        manager.initialize();
+
+        assertThrows(IllegalStateException.class, manager::convert);
+        assertFalse(manager.isActive());
+        assertEquals(List.of(), h2.statements);
+    }
+
+    // Answers the manager's information_schema queries like MySQL with a pre-migration schema and records all DDL
+    private static final class MySql extends JdbcTemplate {
+
+        private final String product;
+        private final List<String> statements = new ArrayList<>();
+        private final List<String> partitions = new ArrayList<>();
+
+        MySql(String product) {
+            this.product = product;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(ConnectionCallback<T> action) {
+            return (T) product;
+        }
+
+        @Override
+        public void execute(String sql) {
+            statements.add(sql);
+            if (sql.startsWith("alter table transactions partition by")) {
+                partitions.addAll(List.of("p202601", TransactionPartitionManager.OVERFLOW));
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(String sql, Class<T> elementType) {
+            if (sql.contains("information_schema.partitions")) {
+                return (List<T>) List.copyOf(partitions);
+            }
+            if (sql.contains("'FOREIGN KEY'")) {
+                return (List<T>) List.of("FKqwv7rmvc8va8rep7piikrojds");
+            }
+            throw new AssertionError("unexpected query: " + sql);
+        }
+
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType) {
+            if (sql.contains("information_schema.columns")) {
+                return requiredType.cast(0);
+            }
+            if (sql.contains("min(transaction_date)")) {
+                return requiredType.cast(Timestamp.valueOf("2026-01-15 10:00:00"));
+            }
+            throw new AssertionError("unexpected query: " + sql);
+        }
+    }
+}
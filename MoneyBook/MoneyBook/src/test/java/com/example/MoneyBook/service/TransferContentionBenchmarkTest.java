@@ -0,0 +1,76 @@
+package com.example.MoneyBook.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.UserRepository;
+
+/**
+ * Transfer throughput when many threads move money in both directions between
+ * a few hot accounts, so nearly every transfer waits for the row locks of
+ * another. Correctness under the same load is checked by {@link LedgerTransferTest}.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=TransferContentionBenchmarkTest -Dbench.accounts=3
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class TransferContentionBenchmarkTest {
+
+    private static final int THREADS = Integer.getInteger("bench.threads", 16);
+    private static final int ACCOUNTS = Integer.getInteger("bench.accounts", 3);
+    private static final int TRANSFERS_PER_THREAD = Integer.getInteger("bench.transfers", 1_000);
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void hotAccountTransferThroughput() throws Exception {
+        Long[] userIds = new Long[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            userIds[i] = userRepository.save(new User("transfer-bench-" + i, "pw", new BigDecimal("1000000.00"))).getId();
+        }
+
+        measure(userIds); // warm up
+        double throughput = measure(userIds);
+
+        System.out.printf("transfers between %d hot accounts, %d threads: %8.0f transfers/s%n",
+                ACCOUNTS, THREADS, throughput);
+    }
+
+    private double measure(Long[] userIds) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + random.nextInt(1, ACCOUNTS)) % ACCOUNTS;
+                    ledgerService.transfer(userIds[from], userIds[to], BigDecimal.ONE, null);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        return (double) THREADS * TRANSFERS_PER_THREAD / ((System.nanoTime() - start) / 1e9);
+    }
+}
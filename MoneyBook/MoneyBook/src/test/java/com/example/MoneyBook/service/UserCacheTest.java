@@ -0,0 +1,62 @@
+package com.example.MoneyBook.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.MoneyBook.model.Transaction;
+import com.example.MoneyBook.model.User;
+import com.example.MoneyBook.repo.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserCacheTest {
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void cachedUntilBalanceChanges() {
+        Long userId = userRepository.save(new User("cached-" + System.nanoTime(), "pw", new BigDecimal("10.00"))).getId();
+
+        User first = userCache.find(userId);
+        assertSame(first, userCache.find(userId));
+
+        Transaction deposit = ledgerService.deposit(userId, new BigDecimal("5.00"), null);
+        assertEquals(0, new BigDecimal("15.00").compareTo(userCache.find(userId).getBalance()));
+
+        ledgerService.deleteTransaction(deposit.getId());
+        assertEquals(0, new BigDecimal("10.00").compareTo(userCache.find(userId).getBalance()));
+
+        ledgerService.adjustBalance(userId, new BigDecimal("42.00"));
+        assertEquals(0, new BigDecimal("42.00").compareTo(userCache.find(userId).getBalance()));
+    }
+
+    @Test
+    void exposesHitAndMissCounts() {
+        Long userId = userRepository.save(new User("stats-" + System.nanoTime(), "pw", new BigDecimal("1.00"))).getId();
+        userCache.find(userId);
+        userCache.find(userId);
+
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", UserCache.USERS).tag("result", "hit").functionCounter());
+        assertNotNull(meterRegistry.find("cache.evictions").tag("cache", UserCache.USERS).functionCounter());
+    }
+}
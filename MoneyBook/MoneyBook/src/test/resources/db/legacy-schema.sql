@@ -0,0 +1,12 @@
+-- Schema and data as left by the app before the Flyway migrations, when Hibernate
+-- created the tables itself (ddl-auto=create) from the original two entities
+
+create table users (balance numeric(10,2) not null, id bigint generated by default as identity, name varchar(255), password varchar(255) not null, username varchar(255) not null unique, primary key (id));
+create table transactions (cash_in numeric(10,2) not null, cash_out numeric(10,2) not null, id bigint generated by default as identity, transaction_date timestamp(6) not null, user_id bigint not null, notes varchar(500), type enum ('CASHIN','CASHOUT') not null, primary key (id));
+alter table if exists transactions add constraint FKqwv7rmvc8va8rep7piikrojds foreign key (user_id) references users;
+
+insert into users (username, name, password, balance) values ('legacy', 'Legacy User', 'secret', 70.00);
+insert into transactions (user_id, cash_in, cash_out, transaction_date, type, notes)
+    values (1, 100.00, 0.00, timestamp '2025-03-01 09:00:00', 'CASHIN', 'opening deposit');
+insert into transactions (user_id, cash_in, cash_out, transaction_date, type, notes)
+    values (1, 0.00, 30.00, timestamp '2025-03-02 18:30:00', 'CASHOUT', 'groceries');